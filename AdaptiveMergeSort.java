@@ -0,0 +1,742 @@
+// Merge sort natural, adaptado al orden que ya trae la entrada (estilo TimSort).
+// Detecta tramos ascendentes y estrictamente descendentes (estos se invierten),
+// alarga los tramos cortos con inserción binaria hasta un mínimo y fusiona los
+// tramos manteniendo los invariantes de pila de TimSort, con galope cuando un
+// tramo gana muchas comparaciones seguidas. Con la entrada ya ordenada hace
+// una sola pasada, O(n); es el modo pensado para registros casi ordenados.
+public final class AdaptiveMergeSort {
+    // Tramos mínimos y umbral para el ordenamiento por inserción directo
+    static final int MIN_MERGE = 32;
+    // Comparaciones ganadas seguidas antes de pasar a modo galope
+    static final int MIN_GALLOP = 7;
+    static final int INITIAL_TMP = 256;
+    // Con los invariantes de la pila basta para cualquier n de 31 bits
+    static final int MAX_STACK = 49;
+
+    private AdaptiveMergeSort() {
+    }
+
+    public static void sort(int[] a) {
+        IntSorter.sort(a, 0, a.length);
+    }
+
+    public static void sort(int[] a, int from, int to) {
+        IntSorter.sort(a, from, to);
+    }
+
+    public static void sort(long[] a) {
+        LongSorter.sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        LongSorter.sort(a, from, to);
+    }
+
+    // Número de tramos naturales (ascendentes o estrictamente descendentes)
+    public static int countRuns(int[] a) {
+        int runs = 0;
+        for (int lo = 0, n = a.length; lo < n; runs++) {
+            int hi = lo + 1;
+            if (hi < n && a[hi] < a[lo]) {
+                while (hi < n && a[hi] < a[hi - 1]) hi++;
+            } else {
+                while (hi < n && a[hi] >= a[hi - 1]) hi++;
+            }
+            lo = hi;
+        }
+        return runs;
+    }
+
+    // Longitud mínima de tramo: entre MIN_MERGE / 2 y MIN_MERGE, elegida para
+    // que n / minRun quede cerca de una potencia de dos
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    // Estado de un ordenamiento de int[] (pila de tramos, buffer y umbral de galope)
+    private static final class IntSorter {
+        private final int[] a;
+        private int[] tmp;
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[MAX_STACK];
+        private final int[] runLen = new int[MAX_STACK];
+        private int stackSize;
+
+        IntSorter(int[] a, int n) {
+            this.a = a;
+            tmp = new int[Math.min(INITIAL_TMP, Math.max(1, n >>> 1))];
+        }
+
+        static void sort(int[] a, int from, int to) {
+            int n = to - from;
+            if (n < 2) return;
+            if (n < MIN_MERGE) {
+                int run = countRunAndMakeAscending(a, from, to);
+                InsertionSortEngine.binarySort(a, from, to, from + run);
+                return;
+            }
+            IntSorter s = new IntSorter(a, n);
+            int minRun = minRunLength(n);
+            int lo = from, remaining = n;
+            do {
+                int run = countRunAndMakeAscending(a, lo, to);
+                if (run < minRun) {
+                    int force = Math.min(remaining, minRun);
+                    InsertionSortEngine.binarySort(a, lo, lo + force, lo + run);
+                    run = force;
+                }
+                s.pushRun(lo, run);
+                s.mergeCollapse();
+                lo += run;
+                remaining -= run;
+            } while (remaining != 0);
+            s.mergeForceCollapse();
+        }
+
+        // Longitud del tramo que empieza en lo; si es estrictamente
+        // descendente se invierte para que quede ascendente
+        static int countRunAndMakeAscending(int[] a, int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) return 1;
+            if (a[runHi++] < a[lo]) {
+                while (runHi < hi && a[runHi] < a[runHi - 1]) runHi++;
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    int t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                }
+            } else {
+                while (runHi < hi && a[runHi] >= a[runHi - 1]) runHi++;
+            }
+            return runHi - lo;
+        }
+
+        private void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        // Mantiene los invariantes de la pila de TimSort:
+        // len[i - 2] > len[i - 1] + len[i] y len[i - 1] > len[i]
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        // Fusiona los tramos i e i + 1 de la pila
+        private void mergeAt(int i) {
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // Lo que ya está en su sitio al principio del primer tramo y al
+            // final del segundo no participa en la fusión
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        // Posición más a la izquierda donde insertar key en a[base, base + len)
+        static int gallopLeft(int key, int[] a, int base, int len, int hint) {
+            int lastOfs = 0, ofs = 1;
+            if (key > a[base + hint]) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key > a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key <= a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key > a[base + m]) lastOfs = m + 1;
+                else ofs = m;
+            }
+            return ofs;
+        }
+
+        // Posición más a la derecha donde insertar key en a[base, base + len)
+        static int gallopRight(int key, int[] a, int base, int len, int hint) {
+            int lastOfs = 0, ofs = 1;
+            if (key < a[base + hint]) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key < a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key >= a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key < a[base + m]) ofs = m;
+                else lastOfs = m + 1;
+            }
+            return ofs;
+        }
+
+        // Fusión de izquierda a derecha copiando el primer tramo (el menor) al buffer
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0, cursor2 = base2, dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+                // Uno a uno hasta que un tramo gane minGallop veces seguidas
+                do {
+                    if (a[cursor2] < tmp[cursor1]) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) break outer;
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // Galope: copiar bloques enteros mientras compense
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--len1 == 1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(1, minGallop);
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+            }
+        }
+
+        // Fusión de derecha a izquierda copiando el segundo tramo (el menor) al buffer
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1, dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+                do {
+                    if (tmp[cursor2] < a[cursor1]) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) break outer;
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--len2 == 1) break outer;
+
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(1, minGallop);
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        private int[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) newSize = minCapacity;
+                tmp = new int[Math.min(newSize, a.length)];
+            }
+            return tmp;
+        }
+    }
+
+    // Estado de un ordenamiento de long[] (pila de tramos, buffer y umbral de galope)
+    private static final class LongSorter {
+        private final long[] a;
+        private long[] tmp;
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[MAX_STACK];
+        private final int[] runLen = new int[MAX_STACK];
+        private int stackSize;
+
+        LongSorter(long[] a, int n) {
+            this.a = a;
+            tmp = new long[Math.min(INITIAL_TMP, Math.max(1, n >>> 1))];
+        }
+
+        static void sort(long[] a, int from, int to) {
+            int n = to - from;
+            if (n < 2) return;
+            if (n < MIN_MERGE) {
+                int run = countRunAndMakeAscending(a, from, to);
+                InsertionSortEngine.binarySort(a, from, to, from + run);
+                return;
+            }
+            LongSorter s = new LongSorter(a, n);
+            int minRun = minRunLength(n);
+            int lo = from, remaining = n;
+            do {
+                int run = countRunAndMakeAscending(a, lo, to);
+                if (run < minRun) {
+                    int force = Math.min(remaining, minRun);
+                    InsertionSortEngine.binarySort(a, lo, lo + force, lo + run);
+                    run = force;
+                }
+                s.pushRun(lo, run);
+                s.mergeCollapse();
+                lo += run;
+                remaining -= run;
+            } while (remaining != 0);
+            s.mergeForceCollapse();
+        }
+
+        // Longitud del tramo que empieza en lo; si es estrictamente
+        // descendente se invierte para que quede ascendente
+        static int countRunAndMakeAscending(long[] a, int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) return 1;
+            if (a[runHi++] < a[lo]) {
+                while (runHi < hi && a[runHi] < a[runHi - 1]) runHi++;
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    long t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                }
+            } else {
+                while (runHi < hi && a[runHi] >= a[runHi - 1]) runHi++;
+            }
+            return runHi - lo;
+        }
+
+        private void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        // Mantiene los invariantes de la pila de TimSort:
+        // len[i - 2] > len[i - 1] + len[i] y len[i - 1] > len[i]
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        // Fusiona los tramos i e i + 1 de la pila
+        private void mergeAt(int i) {
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // Lo que ya está en su sitio al principio del primer tramo y al
+            // final del segundo no participa en la fusión
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        // Posición más a la izquierda donde insertar key en a[base, base + len)
+        static int gallopLeft(long key, long[] a, int base, int len, int hint) {
+            int lastOfs = 0, ofs = 1;
+            if (key > a[base + hint]) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key > a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key <= a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key > a[base + m]) lastOfs = m + 1;
+                else ofs = m;
+            }
+            return ofs;
+        }
+
+        // Posición más a la derecha donde insertar key en a[base, base + len)
+        static int gallopRight(long key, long[] a, int base, int len, int hint) {
+            int lastOfs = 0, ofs = 1;
+            if (key < a[base + hint]) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key < a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key >= a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) ofs = maxOfs;
+                }
+                if (ofs > maxOfs) ofs = maxOfs;
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key < a[base + m]) ofs = m;
+                else lastOfs = m + 1;
+            }
+            return ofs;
+        }
+
+        // Fusión de izquierda a derecha copiando el primer tramo (el menor) al buffer
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            long[] a = this.a;
+            long[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0, cursor2 = base2, dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+                // Uno a uno hasta que un tramo gane minGallop veces seguidas
+                do {
+                    if (a[cursor2] < tmp[cursor1]) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) break outer;
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // Galope: copiar bloques enteros mientras compense
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--len1 == 1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(1, minGallop);
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+            }
+        }
+
+        // Fusión de derecha a izquierda copiando el segundo tramo (el menor) al buffer
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            long[] a = this.a;
+            long[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1, dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+                do {
+                    if (tmp[cursor2] < a[cursor1]) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) break outer;
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--len2 == 1) break outer;
+
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(1, minGallop);
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        private long[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) newSize = minCapacity;
+                tmp = new long[Math.min(newSize, a.length)];
+            }
+            return tmp;
+        }
+    }
+}
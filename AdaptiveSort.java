@@ -0,0 +1,314 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+// Punto de entrada único para ordenar int[]: observa la entrada y delega en
+// el motor que mejor le va, en lugar de elegir el método por su nombre como
+// en el menú. Los pasos, de más barato a más caro:
+//  1. Tamaño: arreglos pequeños van directo a inserción.
+//  2. Rango exacto (una pasada de mínimo y máximo): si es pequeño respecto de
+//     n, counting sort.
+//  3. Orden previo: se cuentan los descensos en bloques contiguos repartidos
+//     por el arreglo; casi ordenado o casi inverso va a AdaptiveMergeSort.
+//  4. Tamaño medio con rango amplio: introsort, de tres vías si la muestra
+//     tiene muchos repetidos.
+//  5. Rango amplio y n grande: bucket sort si la muestra se reparte parejo
+//     en el rango, radix sort si está sesgada o n es muy grande.
+// Los umbrales por defecto salen de la sección "calibrate" de SortBenchmark
+// (bucketMaxSkew y duplicateMin no se calibran); se pueden reemplazar con el
+// archivo que indique -Dadaptivesort.config (o, si no se indica, el recurso
+// adaptive-sort.properties del classpath) y con propiedades
+// -Dadaptivesort.<clave>. La configuración se lee la primera vez que hace
+// falta, no al cargar la clase: un valor inválido llega a quien ordena como
+// IllegalArgumentException y la próxima llamada vuelve a intentarlo.
+public final class AdaptiveSort {
+    static final String CONFIG_PROPERTY = "adaptivesort.config";
+    static final String CONFIG_FILE = "adaptive-sort.properties";
+    static final String PREFIX = "adaptivesort.";
+    // Bloques contiguos de la muestra y su longitud
+    static final int SAMPLE_BLOCKS = 32;
+    static final int BLOCK_LENGTH = 32;
+    // Casillas del histograma con que se mide el sesgo de la muestra
+    static final int SKEW_BINS = 64;
+
+    public enum Choice {
+        INSERTION, COUNTING, ADAPTIVE_MERGE, INTROSORT, INTROSORT_THREE_WAY, BUCKET, RADIX
+    }
+
+    // null hasta la primera llamada que los necesita; si dos hilos cargan a
+    // la vez ambos obtienen los mismos valores y da igual cuál queda
+    private static volatile Thresholds thresholds;
+
+    private AdaptiveSort() {
+    }
+
+    public static Thresholds thresholds() {
+        Thresholds t = thresholds;
+        if (t == null) {
+            t = Thresholds.load();
+            thresholds = t;
+        }
+        return t;
+    }
+
+    public static void sort(int[] a) {
+        sort(a, thresholds());
+    }
+
+    public static void sort(int[] a, Thresholds t) {
+        switch (choose(a, t)) {
+            case INSERTION:
+                InsertionSortEngine.sort(a, 0, a.length);
+                break;
+            case COUNTING:
+                CountingSortEngine.sort(a, 0, a.length);
+                break;
+            case ADAPTIVE_MERGE:
+                AdaptiveMergeSort.sort(a);
+                break;
+            case INTROSORT:
+                QuickSortEngine.sort(a);
+                break;
+            case INTROSORT_THREE_WAY:
+                QuickSortEngine.sort(a, QuickSortEngine.Partitioning.THREE_WAY);
+                break;
+            case BUCKET:
+                BucketSortEngine.sort(a);
+                break;
+            default:
+                RadixSortEngine.sort(a);
+                break;
+        }
+    }
+
+    public static Choice choose(int[] a) {
+        return choose(a, thresholds());
+    }
+
+    // Decide sin modificar a; cada medida se toma solo si hace falta
+    public static Choice choose(int[] a, Thresholds t) {
+        int n = a.length;
+        if (n <= t.insertionMax) return Choice.INSERTION;
+
+        long mm = CountingSortEngine.minMax(a, 0, n);
+        long range = CountingSortEngine.range(mm);
+        if (range <= Math.min(CountingSortEngine.MAX_RANGE, (long) n * t.countingRangeFactor)) {
+            return Choice.COUNTING;
+        }
+
+        double descents = descentRatio(a);
+        if (descents <= t.presortedMaxDescents || descents >= 1 - t.presortedMaxDescents) {
+            return Choice.ADAPTIVE_MERGE;
+        }
+
+        if (n < t.distributionMinSize) {
+            return duplicateRatio(a) >= t.duplicateMin ? Choice.INTROSORT_THREE_WAY : Choice.INTROSORT;
+        }
+        if (n >= t.radixMinSize) return Choice.RADIX;
+        return skew(a, CountingSortEngine.min(mm), range) <= t.bucketMaxSkew ? Choice.BUCKET : Choice.RADIX;
+    }
+
+    // ------------------------------------------------------------- muestreo
+
+    // Inicio del bloque b de la muestra; con n pequeño los bloques se solapan
+    // o cubren todo el arreglo
+    private static int blockStart(int n, int b) {
+        return (int) ((long) (n - BLOCK_LENGTH) * b / (SAMPLE_BLOCKS - 1));
+    }
+
+    // Fracción de pares vecinos en descenso dentro de los bloques: 0 si la
+    // entrada está ordenada, 1 si está invertida, ~0.5 si es aleatoria
+    static double descentRatio(int[] a) {
+        int n = a.length;
+        if (n <= SAMPLE_BLOCKS * BLOCK_LENGTH) {
+            int d = 0;
+            for (int i = 1; i < n; i++) {
+                if (a[i] < a[i - 1]) d++;
+            }
+            return (double) d / Math.max(1, n - 1);
+        }
+        int d = 0;
+        for (int b = 0; b < SAMPLE_BLOCKS; b++) {
+            int s = blockStart(n, b);
+            for (int i = s + 1; i < s + BLOCK_LENGTH; i++) {
+                if (a[i] < a[i - 1]) d++;
+            }
+        }
+        return (double) d / (SAMPLE_BLOCKS * (BLOCK_LENGTH - 1));
+    }
+
+    // Copia de la muestra (o de todo el arreglo si es pequeño)
+    static int[] sample(int[] a) {
+        int n = a.length;
+        if (n <= SAMPLE_BLOCKS * BLOCK_LENGTH) return a.clone();
+        int[] s = new int[SAMPLE_BLOCKS * BLOCK_LENGTH];
+        for (int b = 0; b < SAMPLE_BLOCKS; b++) {
+            System.arraycopy(a, blockStart(n, b), s, b * BLOCK_LENGTH, BLOCK_LENGTH);
+        }
+        return s;
+    }
+
+    // Fracción de la muestra que repite un valor anterior
+    static double duplicateRatio(int[] a) {
+        int[] s = sample(a);
+        QuickSortEngine.sort(s);
+        int dup = 0;
+        for (int i = 1; i < s.length; i++) {
+            if (s[i] == s[i - 1]) dup++;
+        }
+        return (double) dup / s.length;
+    }
+
+    // Ocupación de la casilla más llena del histograma de la muestra sobre
+    // [min, min + range), relativa a la de una distribución uniforme
+    static double skew(int[] a, int min, long range) {
+        int[] s = sample(a);
+        int[] bins = new int[SKEW_BINS];
+        int max = 0;
+        for (int v : s) {
+            int b = (int) (((long) v - min) * SKEW_BINS / range);
+            max = Math.max(max, ++bins[b]);
+        }
+        return max * (double) SKEW_BINS / s.length;
+    }
+
+    // ------------------------------------------------------------- umbrales
+
+    public static final class Thresholds {
+        // Hasta este tamaño, inserción directa
+        public final int insertionMax;
+        // Counting sort si el rango es a lo sumo n * countingRangeFactor
+        public final int countingRangeFactor;
+        // Casi ordenado: fracción de descensos a lo sumo esta (o al menos 1 - esta)
+        public final double presortedMaxDescents;
+        // Por debajo de este tamaño, introsort en vez de bucket o radix
+        public final int distributionMinSize;
+        // Desde este tamaño, radix sort aunque la muestra sea pareja
+        public final int radixMinSize;
+        // Bucket sort si la casilla más llena no supera esta proporción de lo uniforme
+        public final double bucketMaxSkew;
+        // Introsort de tres vías si la muestra repite al menos esta fracción
+        public final double duplicateMin;
+
+        public Thresholds(int insertionMax, int countingRangeFactor, double presortedMaxDescents,
+                          int distributionMinSize, int radixMinSize, double bucketMaxSkew,
+                          double duplicateMin) {
+            if (!(presortedMaxDescents >= 0 && presortedMaxDescents < 0.5)) {
+                throw new IllegalArgumentException(
+                        "presortedMaxDescents debe estar en [0, 0.5): " + presortedMaxDescents);
+            }
+            this.insertionMax = size("insertionMax", insertionMax);
+            this.countingRangeFactor = size("countingRangeFactor", countingRangeFactor);
+            this.presortedMaxDescents = presortedMaxDescents;
+            this.distributionMinSize = size("distributionMinSize", distributionMinSize);
+            this.radixMinSize = size("radixMinSize", radixMinSize);
+            this.bucketMaxSkew = positive("bucketMaxSkew", bucketMaxSkew);
+            this.duplicateMin = positive("duplicateMin", duplicateMin);
+        }
+
+        private static int size(String key, int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException(key + " no puede ser negativo: " + value);
+            }
+            return value;
+        }
+
+        private static double positive(String key, double value) {
+            if (!(value > 0 && value < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException(key + " debe ser finito y positivo: " + value);
+            }
+            return value;
+        }
+
+        public static Thresholds defaults() {
+            return new Thresholds(32, 2, 0.15, 128, 1 << 16, 4.0, 0.25);
+        }
+
+        // Claves ausentes conservan el valor de base
+        public static Thresholds from(Properties p, Thresholds base) {
+            return new Thresholds(
+                    intValue(p, "insertionMax", base.insertionMax),
+                    intValue(p, "countingRangeFactor", base.countingRangeFactor),
+                    doubleValue(p, "presortedMaxDescents", base.presortedMaxDescents),
+                    intValue(p, "distributionMinSize", base.distributionMinSize),
+                    intValue(p, "radixMinSize", base.radixMinSize),
+                    doubleValue(p, "bucketMaxSkew", base.bucketMaxSkew),
+                    doubleValue(p, "duplicateMin", base.duplicateMin));
+        }
+
+        public Properties toProperties() {
+            Properties p = new Properties();
+            p.setProperty("insertionMax", Integer.toString(insertionMax));
+            p.setProperty("countingRangeFactor", Integer.toString(countingRangeFactor));
+            p.setProperty("presortedMaxDescents", Double.toString(presortedMaxDescents));
+            p.setProperty("distributionMinSize", Integer.toString(distributionMinSize));
+            p.setProperty("radixMinSize", Integer.toString(radixMinSize));
+            p.setProperty("bucketMaxSkew", Double.toString(bucketMaxSkew));
+            p.setProperty("duplicateMin", Double.toString(duplicateMin));
+            return p;
+        }
+
+        // Valores por defecto, luego la configuración (el archivo de
+        // -Dadaptivesort.config o el recurso del classpath, si existe) y por
+        // último las propiedades del sistema adaptivesort.<clave>
+        public static Thresholds load() {
+            Thresholds t = defaults();
+            Properties file = new Properties();
+            String configured = System.getProperty(CONFIG_PROPERTY);
+            String source = configured != null ? configured : CONFIG_FILE;
+            try {
+                if (configured != null) {
+                    Path path = Paths.get(configured);
+                    if (!Files.isRegularFile(path)) {
+                        throw new IllegalArgumentException("No existe el archivo de configuración: " + path);
+                    }
+                    try (InputStream in = Files.newInputStream(path)) {
+                        file.load(in);
+                    }
+                } else {
+                    try (InputStream in = AdaptiveSort.class.getResourceAsStream("/" + CONFIG_FILE)) {
+                        if (in != null) file.load(in);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo leer " + source, e);
+            }
+            t = from(file, t);
+
+            Properties system = new Properties();
+            for (String key : t.toProperties().stringPropertyNames()) {
+                String v = System.getProperty(PREFIX + key);
+                if (v != null) system.setProperty(key, v);
+            }
+            return from(system, t);
+        }
+
+        private static int intValue(Properties p, String key, int base) {
+            String v = p.getProperty(key);
+            if (v == null) return base;
+            try {
+                return Integer.parseInt(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor no válido para " + key + ": " + v, e);
+            }
+        }
+
+        private static double doubleValue(Properties p, String key, double base) {
+            String v = p.getProperty(key);
+            if (v == null) return base;
+            try {
+                return Double.parseDouble(v.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor no válido para " + key + ": " + v, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return toProperties().toString();
+        }
+    }
+}
@@ -0,0 +1,532 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// Motor de Bucket Sort sin dependencias de Swing.
+// Recorre el arreglo una vez para obtener mínimo y máximo, elige el número de
+// buckets según n y el rango, reparte los valores en buckets planos (un solo
+// arreglo primitivo, sin ArrayList<Integer>) y ordena cada bucket con InsertionSortEngine.
+// La versión secuencial de int[] acepta un SortTrace opcional.
+public final class BucketSortEngine {
+    // Tamaño medio de bucket buscado
+    static final int TARGET_BUCKET_SIZE = 2;
+    // Límite de buckets (2^22 contadores = 16 MB)
+    static final int MAX_BUCKET_BITS = 22;
+    // Buckets mayores que esto (datos sesgados) se ordenan con Arrays.sort
+    static final int INSERTION_LIMIT = 32;
+    // Por debajo de este tamaño el modo paralelo ordena secuencialmente
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    // Buckets gruesos del reparto paralelo (un histograma de este tamaño por hilo)
+    static final int MAX_PARALLEL_BUCKET_BITS = 12;
+
+    private BucketSortEngine() {
+    }
+
+    // Plan de reparto para int[]: bucket = (valor - min) >>> shift
+    public static final class IntPlan {
+        public final int min;
+        public final int shift;
+        public final int buckets;
+
+        IntPlan(int min, int shift, int buckets) {
+            this.min = min;
+            this.shift = shift;
+            this.buckets = buckets;
+        }
+
+        public int bucketOf(int value) {
+            return (int) (((long) value - min) >>> shift);
+        }
+
+        // Cantidad de elementos que caen en cada bucket
+        public int[] histogram(int[] a, int from, int to) {
+            int[] sizes = new int[buckets];
+            for (int i = from; i < to; i++) {
+                sizes[bucketOf(a[i])]++;
+            }
+            return sizes;
+        }
+    }
+
+    public static IntPlan plan(int[] a, int from, int to) {
+        int min = a[from], max = a[from];
+        for (int i = from + 1; i < to; i++) {
+            int v = a[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        return plan(min, max, to - from);
+    }
+
+    static IntPlan plan(int min, int max, int n) {
+        int bits = bucketBits(n);
+        long range = (long) max - min;
+        int shift = Math.max(0, (64 - Long.numberOfLeadingZeros(range)) - bits);
+        return new IntPlan(min, shift, (int) (range >>> shift) + 1);
+    }
+
+    // log2 del número de buckets para n elementos (al menos dos buckets,
+    // así el desplazamiento de long nunca llega a 64)
+    static int bucketBits(int n) {
+        int target = Math.max(2, n / TARGET_BUCKET_SIZE);
+        return Math.min(MAX_BUCKET_BITS, 32 - Integer.numberOfLeadingZeros(target - 1));
+    }
+
+    // ---------------------------------------------------------------- int[]
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    // scratch puede ser null; si no, debe tener al menos to - from posiciones
+    public static void sort(int[] a, int from, int to, int[] scratch) {
+        sort(a, from, to, scratch, null);
+    }
+
+    // trace puede ser null; si no, recibe las escrituras del reparto y los
+    // pasos de la inserción en cada bucket (el reparto no compara elementos)
+    public static void sort(int[] a, int from, int to, int[] scratch, SortTrace trace) {
+        if (to - from < 2) return;
+        if (scratch == null) scratch = new int[to - from];
+        sort(a, from, to, scratch, 0, trace);
+    }
+
+    // Usa scratch[scratchFrom, scratchFrom + (to - from)) como buffer de reparto
+    static void sort(int[] a, int from, int to, int[] scratch, int scratchFrom, SortTrace trace) {
+        int n = to - from;
+        if (n < 2) return;
+
+        int min = a[from], max = a[from];
+        for (int i = from + 1; i < to; i++) {
+            int v = a[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        if (min == max) return;
+
+        IntPlan plan = plan(min, max, n);
+        int shift = plan.shift;
+        long lmin = min;
+
+        // Conteo: counts[b + 1] = tamaño del bucket b
+        int[] counts = new int[plan.buckets + 1];
+        for (int i = from; i < to; i++) {
+            counts[(int) ((a[i] - lmin) >>> shift) + 1]++;
+        }
+        for (int b = 1; b <= plan.buckets; b++) {
+            counts[b] += counts[b - 1];
+        }
+
+        // Reparto: tras él, counts[b] marca el final del bucket b
+        System.arraycopy(a, from, scratch, scratchFrom, n);
+        for (int i = scratchFrom, end = scratchFrom + n; i < end; i++) {
+            int v = scratch[i];
+            int p = from + counts[(int) ((v - lmin) >>> shift)]++;
+            a[p] = v;
+            if (trace != null) trace.write(p, v);
+        }
+
+        int start = 0;
+        for (int b = 0; b < plan.buckets; b++) {
+            int end = counts[b];
+            sortBucket(a, from + start, from + end, trace);
+            start = end;
+        }
+    }
+
+    static void sortBucket(int[] a, int from, int to) {
+        sortBucket(a, from, to, null);
+    }
+
+    // Arrays.sort no avisa sus pasos: con trace, el bucket ordenado se
+    // informa como escrituras
+    static void sortBucket(int[] a, int from, int to, SortTrace trace) {
+        int size = to - from;
+        if (size < 2) return;
+        if (size > INSERTION_LIMIT) {
+            Arrays.sort(a, from, to);
+            if (trace == null) return;
+            for (int i = from; i < to; i++) {
+                trace.write(i, a[i]);
+            }
+            return;
+        }
+        InsertionSortEngine.sort(a, from, to, trace);
+    }
+
+    // ------------------------------------------------------- int[] paralelo
+
+    public static void parallelSort(int[] a) {
+        parallelSort(a, ForkJoinPool.commonPool());
+    }
+
+    // Cada tarea cuenta su trozo en un histograma propio; la suma de prefijos
+    // da a cada tarea posiciones de escritura disjuntas, el reparto se hace sin
+    // bloqueos y luego cada bucket grueso se ordena como tarea independiente.
+    public static void parallelSort(int[] a, ForkJoinPool pool) {
+        int n = a.length;
+        int chunks = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || chunks < 2) {
+            sort(a, 0, n, null);
+            return;
+        }
+        int chunkSize = (n + chunks - 1) / chunks;
+
+        // Mínimo y máximo por trozo
+        int[] mins = new int[chunks];
+        int[] maxs = new int[chunks];
+        forEachChunk(pool, chunks, t -> {
+            int from = Math.min(n, t * chunkSize), to = Math.min(n, from + chunkSize);
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                int v = a[i];
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            mins[t] = min;
+            maxs[t] = max;
+        });
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int t = 0; t < chunks; t++) {
+            min = Math.min(min, mins[t]);
+            max = Math.max(max, maxs[t]);
+        }
+        if (min == max) return;
+
+        int bits = Math.min(MAX_PARALLEL_BUCKET_BITS, bucketBits(n / INSERTION_LIMIT));
+        long range = (long) max - min;
+        int shift = Math.max(0, (64 - Long.numberOfLeadingZeros(range)) - bits);
+        int buckets = (int) (range >>> shift) + 1;
+        long lmin = min;
+
+        // Histograma por trozo
+        int[][] offsets = new int[chunks][buckets];
+        forEachChunk(pool, chunks, t -> {
+            int from = Math.min(n, t * chunkSize), to = Math.min(n, from + chunkSize);
+            int[] hist = offsets[t];
+            for (int i = from; i < to; i++) {
+                hist[(int) ((a[i] - lmin) >>> shift)]++;
+            }
+        });
+
+        // Suma de prefijos en orden (bucket, trozo): offsets[t][b] pasa a ser
+        // la primera posición donde el trozo t escribe el bucket b
+        int[] bucketStart = new int[buckets + 1];
+        int pos = 0;
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b] = pos;
+            for (int t = 0; t < chunks; t++) {
+                int c = offsets[t][b];
+                offsets[t][b] = pos;
+                pos += c;
+            }
+        }
+        bucketStart[buckets] = n;
+
+        // Reparto sin bloqueos hacia scratch
+        int[] scratch = new int[n];
+        forEachChunk(pool, chunks, t -> {
+            int from = Math.min(n, t * chunkSize), to = Math.min(n, from + chunkSize);
+            int[] next = offsets[t];
+            for (int i = from; i < to; i++) {
+                int v = a[i];
+                scratch[next[(int) ((v - lmin) >>> shift)]++] = v;
+            }
+        });
+
+        pool.invoke(new BucketTask(a, scratch, bucketStart, 0, buckets));
+    }
+
+    // Ordena los buckets [lo, hi): divide mientras el rango tenga muchos elementos
+    static final class BucketTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] a, scratch, bucketStart;
+        final int lo, hi;
+
+        BucketTask(int[] a, int[] scratch, int[] bucketStart, int lo, int hi) {
+            this.a = a;
+            this.scratch = scratch;
+            this.bucketStart = bucketStart;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1 && bucketStart[hi] - bucketStart[lo] > PARALLEL_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BucketTask(a, scratch, bucketStart, lo, mid),
+                          new BucketTask(a, scratch, bucketStart, mid, hi));
+                return;
+            }
+            for (int b = lo; b < hi; b++) {
+                int from = bucketStart[b], to = bucketStart[b + 1];
+                System.arraycopy(scratch, from, a, from, to - from);
+                if (to - from <= INSERTION_LIMIT) {
+                    sortBucket(a, from, to);
+                } else {
+                    sort(a, from, to, scratch, from, null);
+                }
+            }
+        }
+    }
+
+    // Ejecuta body(t) para t en [0, chunks) repartido en el pool
+    static void forEachChunk(ForkJoinPool pool, int chunks, IntConsumer body) {
+        pool.invoke(new ChunkTask(0, chunks, body));
+    }
+
+    static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int lo, hi;
+        final IntConsumer body;
+
+        ChunkTask(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkTask(lo, mid, body), new ChunkTask(mid, hi, body));
+        }
+    }
+
+    // --------------------------------------------------------------- long[]
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    public static void sort(long[] a, int from, int to, long[] scratch) {
+        int n = to - from;
+        if (n < 2) return;
+
+        long min = a[from], max = a[from];
+        for (int i = from + 1; i < to; i++) {
+            long v = a[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        if (min == max) return;
+
+        // max - min se interpreta sin signo, así que no desborda
+        int bits = bucketBits(n);
+        long range = max - min;
+        int shift = Math.max(0, (64 - Long.numberOfLeadingZeros(range)) - bits);
+        int buckets = (int) (range >>> shift) + 1;
+
+        int[] counts = new int[buckets + 1];
+        for (int i = from; i < to; i++) {
+            counts[(int) ((a[i] - min) >>> shift) + 1]++;
+        }
+        for (int b = 1; b <= buckets; b++) {
+            counts[b] += counts[b - 1];
+        }
+
+        if (scratch == null) scratch = new long[n];
+        System.arraycopy(a, from, scratch, 0, n);
+        for (int i = 0; i < n; i++) {
+            long v = scratch[i];
+            a[from + counts[(int) ((v - min) >>> shift)]++] = v;
+        }
+
+        int start = 0;
+        for (int b = 0; b < buckets; b++) {
+            int end = counts[b];
+            sortBucket(a, from + start, from + end);
+            start = end;
+        }
+    }
+
+    static void sortBucket(long[] a, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+        if (size > INSERTION_LIMIT) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        InsertionSortEngine.sort(a, from, to);
+    }
+
+    // ------------------------------------------------------------- double[]
+
+    // Orden de Double.compare: los NaN (con sus bits intactos) van al final y
+    // -0.0 antes que 0.0. El reparto es lineal en el valor, así que se ajusta a
+    // lecturas de sensores; con rango infinito se delega en RadixSortEngine.
+    public static void sort(double[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    public static void sort(double[] a, int from, int to, double[] scratch) {
+        int end = to;
+        for (int i = to - 1; i >= from; i--) {
+            double v = a[i];
+            if (v != v) {
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+        int n = end - from;
+        if (n < 2) return;
+
+        double min = a[from], max = a[from];
+        boolean negativeZero = false;
+        for (int i = from; i < end; i++) {
+            double v = a[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+            if (v == 0 && Double.doubleToRawLongBits(v) != 0) negativeZero = true;
+        }
+        double range = max - min;
+        if (Double.isInfinite(range)) {
+            RadixSortEngine.sort(a, from, end);
+            return;
+        }
+        if (range > 0) {
+            int buckets = 1 << bucketBits(n);
+            double scale = buckets / range;
+            int last = buckets - 1;
+
+            int[] counts = new int[buckets + 1];
+            for (int i = from; i < end; i++) {
+                counts[Math.min(last, (int) ((a[i] - min) * scale)) + 1]++;
+            }
+            for (int b = 1; b <= buckets; b++) {
+                counts[b] += counts[b - 1];
+            }
+
+            if (scratch == null) scratch = new double[n];
+            System.arraycopy(a, from, scratch, 0, n);
+            for (int i = 0; i < n; i++) {
+                double v = scratch[i];
+                a[from + counts[Math.min(last, (int) ((v - min) * scale))]++] = v;
+            }
+
+            int start = 0;
+            for (int b = 0; b < buckets; b++) {
+                int stop = counts[b];
+                sortBucket(a, from + start, from + stop);
+                start = stop;
+            }
+        }
+        if (negativeZero) orderZeros(a, from, end);
+    }
+
+    static void sortBucket(double[] a, int from, int to) {
+        int size = to - from;
+        if (size < 2) return;
+        if (size > INSERTION_LIMIT) {
+            Arrays.sort(a, from, to);
+            return;
+        }
+        InsertionSortEngine.sort(a, from, to);
+    }
+
+    // En [from, to) ya ordenado por valor y sin NaN, los ceros forman un solo
+    // bloque donde -0.0 y 0.0 quedaron mezclados: se reescribe con los -0.0
+    // primero
+    static void orderZeros(double[] a, int from, int to) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        int negative = 0, end = lo;
+        for (; end < to && a[end] == 0; end++) {
+            if (Double.doubleToRawLongBits(a[end]) != 0) negative++;
+        }
+        for (int i = lo; i < end; i++) {
+            a[i] = i < lo + negative ? -0.0 : 0.0;
+        }
+    }
+
+    // -------------------------------------------------------------- float[]
+
+    // Igual que double[]; los buckets se terminan con Arrays.sort, que en
+    // tramos pequeños ya es una inserción
+    public static void sort(float[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    public static void sort(float[] a, int from, int to, float[] scratch) {
+        int end = to;
+        for (int i = to - 1; i >= from; i--) {
+            float v = a[i];
+            if (v != v) {
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+        int n = end - from;
+        if (n < 2) return;
+
+        float min = a[from], max = a[from];
+        boolean negativeZero = false;
+        for (int i = from; i < end; i++) {
+            float v = a[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+            if (v == 0 && Float.floatToRawIntBits(v) != 0) negativeZero = true;
+        }
+        double range = (double) max - min;
+        if (Double.isInfinite(range)) {
+            RadixSortEngine.sort(a, from, end);
+            return;
+        }
+        if (range > 0) {
+            int buckets = 1 << bucketBits(n);
+            double scale = buckets / range;
+            int last = buckets - 1;
+
+            int[] counts = new int[buckets + 1];
+            for (int i = from; i < end; i++) {
+                counts[Math.min(last, (int) ((a[i] - (double) min) * scale)) + 1]++;
+            }
+            for (int b = 1; b <= buckets; b++) {
+                counts[b] += counts[b - 1];
+            }
+
+            if (scratch == null) scratch = new float[n];
+            System.arraycopy(a, from, scratch, 0, n);
+            for (int i = 0; i < n; i++) {
+                float v = scratch[i];
+                a[from + counts[Math.min(last, (int) ((v - (double) min) * scale))]++] = v;
+            }
+
+            int start = 0;
+            for (int b = 0; b < buckets; b++) {
+                int stop = counts[b];
+                if (stop - start > 1) Arrays.sort(a, from + start, from + stop);
+                start = stop;
+            }
+        }
+        if (negativeZero) orderZeros(a, from, end);
+    }
+
+    static void orderZeros(float[] a, int from, int to) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        int negative = 0, end = lo;
+        for (; end < to && a[end] == 0; end++) {
+            if (Float.floatToRawIntBits(a[end]) != 0) negative++;
+        }
+        for (int i = lo; i < end; i++) {
+            a[i] = i < lo + negative ? -0.0f : 0.0f;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// Mazo (o zapato de varias barajas) con cada carta codificada como un byte:
+// clave = (valor - 1) * 4 + palo, con valor A=1 ... K=13 y palo ♣ ♦ ♥ ♠.
+// El texto se interpreta una sola vez al construir el mazo; ordenar es un
+// counting sort sobre las 52 claves posibles que reutiliza su contador, así
+// que cada ordenamiento es una pasada O(n) sin reservar memoria.
+public final class CardDeck {
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+    public static final int KEYS = RANKS * SUITS;
+
+    private static final String[] RANK_NAMES = {
+        "A", "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K"
+    };
+    private static final String SUIT_NAMES = "♣♦♥♠";
+
+    private final byte[] cards;
+    private final int[] counts = new int[KEYS];
+
+    private CardDeck(byte[] cards) {
+        this.cards = cards;
+    }
+
+    // Mazo a partir de textos como "K♥", "10♠" o "A♦"
+    public static CardDeck parse(String... cards) {
+        byte[] keys = new byte[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            keys[i] = parseCard(cards[i]);
+        }
+        return new CardDeck(keys);
+    }
+
+    // Zapato ordenado con el número de barajas completas indicado
+    public static CardDeck shoe(int decks) {
+        byte[] keys = new byte[decks * KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (byte) (i % KEYS);
+        }
+        return new CardDeck(keys);
+    }
+
+    public static byte parseCard(String card) {
+        int last = card.length() - 1;
+        int suit = last < 1 ? -1 : SUIT_NAMES.indexOf(card.charAt(last));
+        if (suit < 0) {
+            throw new IllegalArgumentException("Carta no válida: " + card);
+        }
+        return key(rankOf(card.substring(0, last)), suit);
+    }
+
+    private static int rankOf(String rank) {
+        for (int r = 0; r < RANKS; r++) {
+            if (RANK_NAMES[r].equals(rank)) return r + 1;
+        }
+        throw new IllegalArgumentException("Valor de carta no válido: " + rank);
+    }
+
+    public static byte key(int rank, int suit) {
+        return (byte) ((rank - 1) * SUITS + suit);
+    }
+
+    public static int rank(byte key) {
+        return key / SUITS + 1;
+    }
+
+    public static int suit(byte key) {
+        return key % SUITS;
+    }
+
+    public static String format(byte key) {
+        return RANK_NAMES[key / SUITS] + SUIT_NAMES.charAt(key % SUITS);
+    }
+
+    public int size() {
+        return cards.length;
+    }
+
+    public byte get(int index) {
+        return cards[index];
+    }
+
+    public String toString(int index) {
+        return format(cards[index]);
+    }
+
+    // Ordena por valor y, a igual valor, por palo
+    public void sort() {
+        int[] c = counts;
+        Arrays.fill(c, 0);
+        byte[] keys = cards;
+        for (byte k : keys) {
+            c[k]++;
+        }
+        int pos = 0;
+        for (int k = 0; k < KEYS; k++) {
+            for (int end = pos + c[k]; pos < end; pos++) {
+                keys[pos] = (byte) k;
+            }
+        }
+    }
+
+    // Fisher-Yates sobre las claves
+    public void shuffle(Random random) {
+        byte[] keys = cards;
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte t = keys[i];
+            keys[i] = keys[j];
+            keys[j] = t;
+        }
+    }
+}
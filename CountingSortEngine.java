@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+// Motor de Counting Sort sin dependencias de Swing.
+// Un solo recorrido obtiene mínimo y máximo, los contadores se indexan por
+// valor - min (admite negativos) y el resultado se escribe sobre el mismo
+// arreglo. El buffer de conteo se reutiliza entre llamadas: lo pasa quien
+// llama o se toma uno por hilo, así que en régimen no se reserva memoria.
+// Con un SortTrace se avisa cada escritura; el conteo no compara elementos.
+public final class CountingSortEngine {
+    // Rango máximo que admite el buffer por hilo (4 MB de contadores); rangos
+    // más anchos se delegan a BucketSortEngine
+    static final int MAX_RANGE = 1 << 20;
+
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[256]);
+
+    private CountingSortEngine() {
+    }
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    // Usa el buffer del hilo actual, que crece hasta MAX_RANGE y se conserva
+    public static void sort(int[] a, int from, int to) {
+        sort(a, from, to, (SortTrace) null);
+    }
+
+    // trace puede ser null
+    public static void sort(int[] a, int from, int to, SortTrace trace) {
+        if (to - from < 2) return;
+        long mm = minMax(a, from, to);
+        long range = range(mm);
+        if (range > MAX_RANGE) {
+            BucketSortEngine.sort(a, from, to, null, trace);
+            return;
+        }
+        int[] counts = COUNTS.get();
+        if (counts.length < range) {
+            counts = new int[Integer.highestOneBit((int) range - 1) << 1];
+            COUNTS.set(counts);
+        }
+        sort(a, from, to, min(mm), (int) range, counts, trace);
+    }
+
+    // Usa el buffer de quien llama; debe tener al menos max - min + 1 posiciones.
+    // Al terminar counts[v - min] guarda la frecuencia de cada valor v.
+    public static void sort(int[] a, int from, int to, int[] counts) {
+        sort(a, from, to, counts, null);
+    }
+
+    public static void sort(int[] a, int from, int to, int[] counts, SortTrace trace) {
+        if (to - from < 1) return;
+        long mm = minMax(a, from, to);
+        long range = range(mm);
+        if (range > counts.length) {
+            throw new IllegalArgumentException("El rango " + range +
+                    " no cabe en un buffer de conteo de " + counts.length + " posiciones");
+        }
+        sort(a, from, to, min(mm), (int) range, counts, trace);
+    }
+
+    private static void sort(int[] a, int from, int to, int min, int range, int[] counts,
+                             SortTrace trace) {
+        Arrays.fill(counts, 0, range, 0);
+        for (int i = from; i < to; i++) {
+            counts[a[i] - min]++;
+        }
+        int pos = from;
+        for (int k = 0; k < range; k++) {
+            int c = counts[k];
+            if (c != 0) {
+                Arrays.fill(a, pos, pos + c, k + min);
+                if (trace != null) {
+                    for (int i = pos; i < pos + c; i++) {
+                        trace.write(i, k + min);
+                    }
+                }
+                pos += c;
+            }
+        }
+    }
+
+    // Mínimo y máximo en un solo recorrido, empaquetados en un long (min alto, max bajo)
+    static long minMax(int[] a, int from, int to) {
+        int min = a[from], max = a[from];
+        for (int i = from + 1; i < to; i++) {
+            int v = a[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        return ((long) min << 32) | (max & 0xFFFFFFFFL);
+    }
+
+    static int min(long minMax) {
+        return (int) (minMax >> 32);
+    }
+
+    static int max(long minMax) {
+        return (int) minMax;
+    }
+
+    // Cantidad de valores distintos posibles entre min y max
+    static long range(long minMax) {
+        return (long) max(minMax) - min(minMax) + 1;
+    }
+}
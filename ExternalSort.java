@@ -0,0 +1,317 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ordenamiento externo de archivos de registros de ancho fijo, para datos que
+// no caben en el heap. La clave de cada registro es un entero con signo big
+// endian de 4 u 8 bytes en una posición fija; el resto del registro viaja
+// intacto. Dos fases:
+//  1. Tramos: la entrada se mapea en memoria por segmentos (fuera del heap),
+//     las claves del segmento se ordenan junto con su índice con
+//     RadixSortEngine y los registros se copian en ese orden a un archivo
+//     temporal. Si todo cabe en un segmento se escribe directo la salida.
+//  2. Fusión: un montículo mínimo de cursores (el mismo hundimiento que
+//     HeapSortEngine y TopK) fusiona hasta fanIn tramos a la vez, cada
+//     uno leído con un buffer directo; con más tramos se hacen varias pasadas.
+// Los empates se resuelven por número de tramo, así que el orden es estable.
+// El presupuesto de memoria limita el heap de la fase 1 (claves, índices y
+// sus buffers) y la suma de los buffers de la fase 2; el tamaño de los datos
+// solo queda limitado por el disco.
+public final class ExternalSort {
+    static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    static final int DEFAULT_FAN_IN = 64;
+    // Bytes de heap por registro al formar un tramo: clave e índice, más los
+    // buffers del radix sort
+    static final int HEAP_BYTES_PER_RECORD = 2 * (Long.BYTES + Integer.BYTES);
+    // Tope del buffer de cada archivo durante la fusión
+    static final int MAX_BUFFER = 8 << 20;
+
+    private final int recordSize;
+    private final int keyOffset;
+    private final int keyBytes;
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private int fanIn = DEFAULT_FAN_IN;
+    private Path tempDir;
+
+    public ExternalSort(int recordSize, int keyOffset, int keyBytes) {
+        if (keyBytes != Integer.BYTES && keyBytes != Long.BYTES) {
+            throw new IllegalArgumentException("La clave debe ocupar 4 u 8 bytes: " + keyBytes);
+        }
+        if (keyOffset < 0 || recordSize < keyOffset + keyBytes) {
+            throw new IllegalArgumentException("La clave no cabe en el registro: desplazamiento " +
+                    keyOffset + ", registro de " + recordSize + " bytes");
+        }
+        this.recordSize = recordSize;
+        this.keyOffset = keyOffset;
+        this.keyBytes = keyBytes;
+    }
+
+    public ExternalSort memoryBudget(long bytes) {
+        if (bytes < (long) HEAP_BYTES_PER_RECORD * 2 || bytes < 3L * recordSize) {
+            throw new IllegalArgumentException("Presupuesto de memoria demasiado pequeño: " + bytes);
+        }
+        memoryBudget = bytes;
+        return this;
+    }
+
+    public ExternalSort fanIn(int k) {
+        if (k < 2) {
+            throw new IllegalArgumentException("La fusión necesita al menos 2 tramos: " + k);
+        }
+        fanIn = k;
+        return this;
+    }
+
+    // null usa el directorio temporal del sistema
+    public ExternalSort tempDir(Path dir) {
+        tempDir = dir;
+        return this;
+    }
+
+    // Registros por tramo: los que caben en el presupuesto y en un solo mapeo
+    int runRecords() {
+        long byBudget = memoryBudget / HEAP_BYTES_PER_RECORD;
+        long byMapping = Integer.MAX_VALUE / recordSize;
+        return (int) Math.min(byBudget, byMapping);
+    }
+
+    // Ordena input en output (que se crea o reemplaza) y devuelve la cantidad
+    // de registros
+    public long sort(Path input, Path output) throws IOException {
+        if (Files.exists(output) && Files.isSameFile(input, output)) {
+            throw new IllegalArgumentException("La salida no puede ser la misma entrada: " + output);
+        }
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size % recordSize != 0) {
+                throw new IllegalArgumentException("El tamaño de " + input + " (" + size +
+                        " bytes) no es múltiplo del registro de " + recordSize + " bytes");
+            }
+            long total = size / recordSize;
+            int perRun = runRecords();
+            if (total <= perRun) {
+                sortRun(in, 0, (int) total, output);
+                return total;
+            }
+
+            Path parent = tempDir != null ? tempDir : Paths.get(System.getProperty("java.io.tmpdir"));
+            Path dir = Files.createTempDirectory(parent, "external-sort");
+            List<Path> runs = new ArrayList<>();
+            try {
+                for (long first = 0; first < total; first += perRun) {
+                    Path run = dir.resolve("run-" + runs.size());
+                    sortRun(in, first, (int) Math.min(perRun, total - first), run);
+                    runs.add(run);
+                }
+                mergeAll(runs, dir, output);
+            } finally {
+                try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(dir)) {
+                    for (Path file : leftovers) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                Files.deleteIfExists(dir);
+            }
+            return total;
+        }
+    }
+
+    // ------------------------------------------------------------- tramos
+
+    // Ordena los count registros que empiezan en el registro first y los
+    // escribe en out
+    private void sortRun(FileChannel in, long first, int count, Path out) throws IOException {
+        int rs = recordSize;
+        MappedByteBuffer segment = in.map(FileChannel.MapMode.READ_ONLY, first * rs, (long) count * rs);
+        long[] keys = new long[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = key(segment, i * rs);
+            order[i] = i;
+        }
+        RadixSortEngine.sort(keys, order);
+
+        try (FileChannel channel = openOutput(out)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize(1));
+            ByteBuffer record = segment.duplicate();
+            for (int i = 0; i < count; i++) {
+                if (buffer.remaining() < rs) flush(channel, buffer);
+                int p = order[i] * rs;
+                record.limit(p + rs);
+                record.position(p);
+                buffer.put(record);
+                record.clear();
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    // -------------------------------------------------------------- fusión
+
+    // Fusiona de a fanIn tramos hasta que queden los suficientes para una
+    // última pasada sobre output
+    private void mergeAll(List<Path> runs, Path dir, Path output) throws IOException {
+        int generation = 0;
+        while (runs.size() > fanIn) {
+            List<Path> next = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                Path merged = dir.resolve("merge-" + generation + "-" + next.size());
+                merge(group, merged);
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                next.add(merged);
+            }
+            runs.clear();
+            runs.addAll(next);
+            generation++;
+        }
+        merge(runs, output);
+    }
+
+    private void merge(List<Path> runs, Path output) throws IOException {
+        int k = runs.size();
+        int buffer = bufferSize(k + 1);
+        RunCursor[] cursors = new RunCursor[k];
+        try (FileChannel out = openOutput(output)) {
+            int[] heap = new int[k];
+            int size = 0;
+            for (int i = 0; i < k; i++) {
+                cursors[i] = new RunCursor(FileChannel.open(runs.get(i), StandardOpenOption.READ), buffer);
+                if (cursors[i].advance()) {
+                    siftUp(cursors, heap, size++, i);
+                }
+            }
+            ByteBuffer sink = ByteBuffer.allocateDirect(buffer);
+            while (size > 0) {
+                int top = heap[0];
+                if (sink.remaining() < recordSize) flush(out, sink);
+                cursors[top].copyTo(sink);
+                if (cursors[top].advance()) {
+                    siftDown(cursors, heap, size, top);
+                } else if (--size > 0) {
+                    siftDown(cursors, heap, size, heap[size]);
+                }
+            }
+            flush(out, sink);
+        } finally {
+            for (RunCursor c : cursors) {
+                if (c != null) c.channel.close();
+            }
+        }
+    }
+
+    // Orden de los cursores: por clave y, en empate, por número de tramo
+    private static boolean less(RunCursor[] cursors, int i, int j) {
+        long a = cursors[i].key, b = cursors[j].key;
+        return a < b || (a == b && i < j);
+    }
+
+    private static void siftUp(RunCursor[] cursors, int[] heap, int i, int c) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (!less(cursors, c, p)) break;
+            heap[i] = p;
+            i = parent;
+        }
+        heap[i] = c;
+    }
+
+    // Coloca el cursor c en la raíz de un montículo de tamaño n
+    private static void siftDown(RunCursor[] cursors, int[] heap, int n, int c) {
+        int i = 0;
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < n && less(cursors, heap[right], heap[child])) {
+                child = right;
+            }
+            if (!less(cursors, heap[child], c)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = c;
+    }
+
+    // Lector secuencial de un tramo; key es la clave del registro actual, que
+    // empieza en la posición del buffer
+    private final class RunCursor {
+        final FileChannel channel;
+        final ByteBuffer buffer;
+        long key;
+
+        RunCursor(FileChannel channel, int capacity) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+            buffer.flip();
+        }
+
+        // Pasa al siguiente registro; false si el tramo se terminó
+        boolean advance() throws IOException {
+            if (buffer.remaining() < recordSize) {
+                buffer.compact();
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) break;
+                }
+                buffer.flip();
+                if (buffer.remaining() < recordSize) {
+                    if (buffer.hasRemaining()) {
+                        throw new IOException("Tramo truncado: " + buffer.remaining() + " bytes sueltos");
+                    }
+                    return false;
+                }
+            }
+            key = key(buffer, buffer.position());
+            return true;
+        }
+
+        void copyTo(ByteBuffer sink) {
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + recordSize);
+            sink.put(buffer);
+            buffer.limit(limit);
+        }
+    }
+
+    // ---------------------------------------------------------- auxiliares
+
+    private long key(ByteBuffer b, int recordStart) {
+        int p = recordStart + keyOffset;
+        return keyBytes == Long.BYTES ? b.getLong(p) : b.getInt(p);
+    }
+
+    // Parte del presupuesto para cada uno de los buffers, redondeada a
+    // registros completos
+    private int bufferSize(int buffers) {
+        long share = Math.min(memoryBudget / buffers, MAX_BUFFER);
+        return (int) Math.max(recordSize, share / recordSize * recordSize);
+    }
+
+    private static FileChannel openOutput(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
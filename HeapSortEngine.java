@@ -0,0 +1,186 @@
+// Motor de Heap Sort sin dependencias de Swing: O(n log n) garantizado y
+// O(1) de memoria extra. Todas las variantes son iterativas y trabajan sobre
+// el rango [from, to) con índices relativos.
+//  - sortBinary: montículo binario con hundimiento (sift-down) clásico.
+//  - sortBottomUp: variante de Floyd; el hueco de la raíz baja hasta una hoja
+//    siguiendo al hijo mayor (una comparación por nivel) y luego el valor sube.
+//  - sortDAry: montículo de aridad 4 u 8, con los hermanos contiguos en memoria.
+// sort usa la variante de Floyd y acepta un SortTrace opcional.
+public final class HeapSortEngine {
+
+    private HeapSortEngine() {
+    }
+
+    public static void sort(int[] a) {
+        sortBottomUp(a, 0, a.length);
+    }
+
+    public static void sort(int[] a, int from, int to) {
+        sortBottomUp(a, from, to, null);
+    }
+
+    // trace puede ser null; si no, recibe cada comparación y escritura
+    public static void sort(int[] a, int from, int to, SortTrace trace) {
+        sortBottomUp(a, from, to, trace);
+    }
+
+    // ------------------------------------------------------------- binario
+
+    public static void sortBinary(int[] a, int from, int to) {
+        int n = to - from;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(a, from, i, n, a[from + i]);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int v = a[from + end];
+            a[from + end] = a[from];
+            siftDown(a, from, 0, end, v);
+        }
+    }
+
+    // Coloca v partiendo del hueco i en un montículo máximo de tamaño n
+    static void siftDown(int[] a, int from, int i, int n, int v) {
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = a[from + child];
+            int right = child + 1;
+            if (right < n && a[from + right] > c) {
+                child = right;
+                c = a[from + right];
+            }
+            if (v >= c) break;
+            a[from + i] = c;
+            i = child;
+        }
+        a[from + i] = v;
+    }
+
+    // ----------------------------------------------------- Floyd (bottom-up)
+
+    public static void sortBottomUp(int[] a, int from, int to) {
+        sortBottomUp(a, from, to, null);
+    }
+
+    static void sortBottomUp(int[] a, int from, int to, SortTrace trace) {
+        int n = to - from;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftBottomUp(a, from, i, n, a[from + i], trace);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int v = a[from + end];
+            a[from + end] = a[from];
+            if (trace != null) trace.write(from + end, a[from]);
+            siftBottomUp(a, from, 0, end, v, trace);
+        }
+    }
+
+    // Baja el hueco i hasta una hoja por el hijo mayor y sube v desde allí;
+    // v se compara con la posición del hueco que ocuparía
+    static void siftBottomUp(int[] a, int from, int i, int n, int v, SortTrace trace) {
+        int top = i;
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < n) {
+                if (trace != null) trace.compare(from + right, from + child);
+                if (a[from + right] > a[from + child]) child = right;
+            }
+            a[from + i] = a[from + child];
+            if (trace != null) trace.write(from + i, a[from + child]);
+            i = child;
+        }
+        while (i > top) {
+            int parent = (i - 1) >>> 1;
+            int p = a[from + parent];
+            if (trace != null) trace.compare(from + parent, from + i);
+            if (p >= v) break;
+            a[from + i] = p;
+            if (trace != null) trace.write(from + i, p);
+            i = parent;
+        }
+        a[from + i] = v;
+        if (trace != null) trace.write(from + i, v);
+    }
+
+    // ------------------------------------------------- long[] (bottom-up)
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        int n = to - from;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftBottomUp(a, from, i, n, a[from + i]);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            long v = a[from + end];
+            a[from + end] = a[from];
+            siftBottomUp(a, from, 0, end, v);
+        }
+    }
+
+    static void siftBottomUp(long[] a, int from, int i, int n, long v) {
+        int top = i;
+        int half = n >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < n && a[from + right] > a[from + child]) {
+                child = right;
+            }
+            a[from + i] = a[from + child];
+            i = child;
+        }
+        while (i > top) {
+            int parent = (i - 1) >>> 1;
+            long p = a[from + parent];
+            if (p >= v) break;
+            a[from + i] = p;
+            i = parent;
+        }
+        a[from + i] = v;
+    }
+
+    // ---------------------------------------------------------------- d-ario
+
+    public static void sortDAry(int[] a, int from, int to, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("La aridad debe ser al menos 2: " + arity);
+        }
+        int n = to - from;
+        if (n < 2) return;
+        for (int i = (n - 2) / arity; i >= 0; i--) {
+            siftDownDAry(a, from, i, n, a[from + i], arity);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int v = a[from + end];
+            a[from + end] = a[from];
+            siftDownDAry(a, from, 0, end, v, arity);
+        }
+    }
+
+    // Los hijos de i ocupan [d*i + 1, d*i + d]
+    static void siftDownDAry(int[] a, int from, int i, int n, int v, int d) {
+        int lastParent = n < 2 ? -1 : (n - 2) / d;
+        while (i <= lastParent) {
+            int first = d * i + 1;
+            int last = Math.min(first + d, n);
+            int child = first;
+            int c = a[from + first];
+            for (int k = first + 1; k < last; k++) {
+                int x = a[from + k];
+                if (x > c) {
+                    c = x;
+                    child = k;
+                }
+            }
+            if (v >= c) break;
+            a[from + i] = c;
+            i = child;
+        }
+        a[from + i] = v;
+    }
+}
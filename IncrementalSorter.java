@@ -0,0 +1,486 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+// Ordenamiento incremental de un flujo de int[] que llega por bloques.
+// Cada push ordena el bloque con MergeSortEngine y lo apila como un tramo en
+// un único arreglo (arena); como en TimSort, la pila se mantiene balanceada
+// fusionando tramos vecinos cuando dejan de decrecer en longitud, así que
+// cada push cuesta O(m log m) más fusiones amortizadas y nunca hay un gran
+// ordenamiento al final. Los tramos de SEALED_RUN elementos o más no se
+// vuelven a fusionar en memoria, lo que acota la latencia del peor push.
+// drain entrega por lotes los menores valores pendientes (fusión k vías con
+// LoserTree) y snapshot recorre perezosamente el contenido actual sin
+// consumirlo.
+// Cuando los tramos en memoria superan memoryLimit elementos se fusionan en
+// un archivo temporal (en tempDir) que luego se lee por bloques; los archivos
+// se borran al agotarse o con close. Por defecto el límite es lo que cabe en
+// un cuarto de Runtime.maxMemory() contando HEAP_BYTES_PER_ELEMENT por
+// elemento, así que un flujo sin fin vuelca a disco antes de agotar el heap.
+// Los archivos se compactan por niveles: cuando un nivel junta SPILL_FAN_IN
+// tramos se fusionan en uno del nivel siguiente, así cada elemento se
+// reescribe O(log n) veces en lugar de una vez por compactación.
+// drain entrega un orden global solo respecto de lo recibido hasta ese
+// momento: un push posterior puede traer valores menores que los ya
+// entregados.
+public final class IncrementalSorter implements Closeable {
+    static final int INITIAL_CAPACITY = 1 << 10;
+    // Enteros por bloque de lectura y escritura de los tramos en disco; también
+    // es el tope de cada lote de fusión mientras haya tramos en disco
+    static final int SPILL_BLOCK = 1 << 13;
+    // Un tramo de este tamaño o más queda sellado: no se vuelve a fusionar en
+    // memoria y drain lo combina con los demás en la fusión k vías
+    static final int SEALED_RUN = 1 << 18;
+    // Tramos en disco de un mismo nivel que se fusionan en uno del siguiente
+    static final int SPILL_FAN_IN = 64;
+    // Bytes de heap por elemento en memoria en el peor momento: la arena, su
+    // copia al crecer un 50% y el buffer de fusión
+    static final int HEAP_BYTES_PER_ELEMENT = 3 * Integer.BYTES;
+    // El límite por defecto usa 1 / DEFAULT_HEAP_SHARE del heap máximo
+    static final int DEFAULT_HEAP_SHARE = 4;
+
+    private int[] arena;
+    // Fin del último tramo en la arena; entre tramos pueden quedar huecos de
+    // lo ya entregado por drain
+    private int top;
+    private int[] scratch = new int[0];
+    // Pila de tramos en memoria, del más antiguo al más reciente
+    private final List<Run> runs = new ArrayList<>();
+    private final List<Run> spills = new ArrayList<>();
+    private long live;
+    private long size;
+    private int modCount;
+    private long memoryLimit = defaultMemoryLimit();
+    private Path tempDir;
+
+    public IncrementalSorter() {
+        this(INITIAL_CAPACITY);
+    }
+
+    // Reservar de entrada lo que se espera tener en memoria evita las copias
+    // (y las pausas) de hacer crecer la arena
+    public IncrementalSorter(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacidad negativa: " + initialCapacity);
+        }
+        arena = new int[initialCapacity];
+    }
+
+    // Límite por defecto según el heap máximo de la JVM, con un mínimo de un
+    // bloque de volcado y sin pasar de media arena de int
+    static long defaultMemoryLimit() {
+        long elements = Runtime.getRuntime().maxMemory() / DEFAULT_HEAP_SHARE / HEAP_BYTES_PER_ELEMENT;
+        return Math.max(SPILL_BLOCK, Math.min(Integer.MAX_VALUE >> 1, elements));
+    }
+
+    // Elementos en memoria a partir de los cuales se vuelca a disco
+    public IncrementalSorter memoryLimit(long elements) {
+        if (elements < 1) {
+            throw new IllegalArgumentException("El límite de memoria debe ser positivo: " + elements);
+        }
+        memoryLimit = elements;
+        return this;
+    }
+
+    // null usa el directorio temporal del sistema
+    public IncrementalSorter tempDir(Path dir) {
+        tempDir = dir;
+        return this;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int spilledRuns() {
+        return spills.size();
+    }
+
+    public void push(int[] chunk) {
+        push(chunk, 0, chunk.length);
+    }
+
+    public void push(int[] chunk, int from, int to) {
+        int m = to - from;
+        if (m == 0) return;
+        reserve(m);
+        System.arraycopy(chunk, from, arena, top, m);
+        scratch = ensure(scratch, m);
+        MergeSortEngine.sort(arena, top, top + m, scratch);
+        runs.add(new Run(arena, top, top + m));
+        top += m;
+        live += m;
+        size += m;
+        modCount++;
+        mergeCollapse();
+        if (live > memoryLimit) spill();
+    }
+
+    // Escribe en out desde off hasta len de los menores valores pendientes,
+    // los quita y devuelve cuántos escribió. Los índices se validan antes de
+    // consumir nada, así un rango inválido no pierde elementos.
+    public int drain(int[] out, int off, int len) {
+        Objects.checkFromIndexSize(off, len, out.length);
+        int count = (int) Math.min(len, size);
+        List<Run> sources = sources();
+        for (int done = 0; done < count; ) {
+            int batch = spills.isEmpty() ? count - done : Math.min(count - done, SPILL_BLOCK);
+            mergeBatch(sources, out, off + done, batch);
+            done += batch;
+        }
+        long memory = 0;
+        for (int i = runs.size() - 1; i >= 0; i--) {
+            Run r = runs.get(i);
+            if (r.length() == 0) runs.remove(i);
+            else memory += r.length();
+        }
+        for (int i = spills.size() - 1; i >= 0; i--) {
+            if (spills.get(i).length() == 0) closeQuietly(spills.remove(i));
+        }
+        if (runs.isEmpty()) top = 0;
+        live = memory;
+        size -= count;
+        if (count > 0) modCount++;
+        return count;
+    }
+
+    // Hasta max valores en un arreglo nuevo; max negativo es un error
+    public int[] drain(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("La cantidad a entregar no puede ser negativa: " + max);
+        }
+        int[] out = new int[(int) Math.min(max, size)];
+        drain(out, 0, out.length);
+        return out;
+    }
+
+    // Recorre en orden el contenido actual sin consumirlo; la fusión avanza por
+    // lotes a medida que se pide. Falla con ConcurrentModificationException si
+    // después se hace push o drain.
+    public PrimitiveIterator.OfInt snapshot() {
+        return new Snapshot();
+    }
+
+    @Override
+    public void close() {
+        for (Run r : spills) {
+            closeQuietly(r);
+        }
+        spills.clear();
+        runs.clear();
+        top = 0;
+        live = 0;
+        size = 0;
+        modCount++;
+    }
+
+    // --------------------------------------------------------------- pila
+
+    // Reglas de TimSort: cada tramo más largo que la suma de los dos
+    // siguientes y cada uno más largo que el siguiente. Solo se aplican por
+    // encima del último tramo sellado, para que ningún push pague una fusión
+    // de todo lo acumulado.
+    private void mergeCollapse() {
+        int base = runs.size() - 1;
+        while (base > 0 && length(base - 1) < SEALED_RUN) base--;
+        while (runs.size() - base > 1) {
+            int n = runs.size() - 2;
+            if (n > base && length(n - 1) <= length(n) + length(n + 1)
+                    || n > base + 1 && length(n - 2) <= length(n - 1) + length(n)) {
+                if (length(n - 1) < length(n + 1)) n--;
+            } else if (length(n) > length(n + 1)) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private long length(int i) {
+        return runs.get(i).length();
+    }
+
+    // Fusiona los tramos i e i + 1. El de la izquierda va al buffer y la
+    // salida termina donde terminaba el de la derecha, así que el hueco que
+    // pudiera haber entre ambos queda al principio.
+    private void mergeAt(int i) {
+        Run a = runs.get(i), b = runs.remove(i + 1);
+        int n1 = a.limit - a.pos;
+        int out = b.pos - n1;
+        int[] x = arena;
+        if (x[a.limit - 1] <= x[b.pos]) {
+            System.arraycopy(x, a.pos, x, out, n1);
+        } else {
+            scratch = ensure(scratch, n1);
+            int[] left = scratch;
+            System.arraycopy(x, a.pos, left, 0, n1);
+            int l = 0, r = b.pos, hi = b.limit;
+            while (l < n1 && r < hi) {
+                x[out++] = x[r] < left[l] ? x[r++] : left[l++];
+            }
+            if (l < n1) System.arraycopy(left, l, x, out, n1 - l);
+            out = b.pos - n1;
+        }
+        a.pos = out;
+        a.limit = b.limit;
+    }
+
+    // Deja lugar para m elementos al final de la arena, compactando si los
+    // huecos ocupan al menos la mitad y si no creciendo un 50%
+    private void reserve(int m) {
+        if (top - live >= (arena.length >> 1)) compactInto(arena);
+        if (top + m <= arena.length) return;
+        long needed = live + m;
+        if (needed > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Demasiados elementos en memoria: " + needed +
+                    "; use memoryLimit para volcar a disco");
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(needed, arena.length + (long) (arena.length >> 1)));
+        compactInto(new int[capacity]);
+    }
+
+    private void compactInto(int[] target) {
+        int dst = 0;
+        for (Run r : runs) {
+            int len = r.limit - r.pos;
+            System.arraycopy(arena, r.pos, target, dst, len);
+            r.data = target;
+            r.pos = dst;
+            r.limit = dst + len;
+            dst += len;
+        }
+        arena = target;
+        top = dst;
+    }
+
+    // ---------------------------------------------------------- disco
+
+    // Fusiona los tramos en memoria en un archivo temporal (nivel 0) y vacía
+    // la arena; luego compacta los niveles que hayan llegado a SPILL_FAN_IN
+    private void spill() {
+        if (runs.isEmpty()) return;
+        spills.add(write(new ArrayList<>(runs), live));
+        runs.clear();
+        top = 0;
+        live = 0;
+        for (int tier = 0; ; tier++) {
+            List<Run> level = new ArrayList<>();
+            for (Run r : spills) {
+                if (r.tier == tier) level.add(r);
+            }
+            if (level.size() < SPILL_FAN_IN) return;
+            long total = 0;
+            for (Run r : level) {
+                total += r.length();
+            }
+            Run merged = write(new ArrayList<>(level), total);
+            merged.tier = tier + 1;
+            spills.removeAll(level);
+            for (Run r : level) {
+                closeQuietly(r);
+            }
+            spills.add(merged);
+        }
+    }
+
+    // Escribe la fusión de sources (count elementos) en un tramo en disco
+    private Run write(List<Run> sources, long count) {
+        try {
+            Path dir = tempDir != null ? tempDir : Paths.get(System.getProperty("java.io.tmpdir"));
+            Path file = Files.createTempFile(dir, "incremental-sort", ".run");
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            try {
+                int[] block = new int[SPILL_BLOCK];
+                ByteBuffer bytes = ByteBuffer.allocateDirect(SPILL_BLOCK * Integer.BYTES);
+                for (long written = 0; written < count; ) {
+                    int batch = (int) Math.min(SPILL_BLOCK, count - written);
+                    mergeBatch(sources, block, 0, batch);
+                    bytes.clear();
+                    bytes.asIntBuffer().put(block, 0, batch);
+                    bytes.limit(batch * Integer.BYTES);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    written += batch;
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return new Run(channel, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo volcar un tramo a disco", e);
+        }
+    }
+
+    private static void closeQuietly(Run r) {
+        try {
+            r.channel.close();
+        } catch (IOException e) {
+            // no hay nada que recuperar; a lo sumo queda el archivo temporal
+        }
+    }
+
+    // ---------------------------------------------------------- fusión
+
+    private List<Run> sources() {
+        List<Run> all = new ArrayList<>(spills.size() + runs.size());
+        all.addAll(spills);
+        all.addAll(runs);
+        return all;
+    }
+
+    // Escribe en out[off, off + len) los len menores valores de sources y
+    // avanza cada fuente. Ninguna fuente aporta más de len valores, así que
+    // basta con que cada una tenga len en su buffer (len <= SPILL_BLOCK si hay
+    // fuentes en disco).
+    private static void mergeBatch(List<Run> sources, int[] out, int off, int len) {
+        for (int i = sources.size() - 1; i >= 0; i--) {
+            if (sources.get(i).length() == 0) sources.remove(i);
+        }
+        int k = sources.size();
+        if (k == 1) {
+            Run r = sources.get(0);
+            r.fill(len);
+            System.arraycopy(r.data, r.pos, out, off, len);
+            r.pos += len;
+            return;
+        }
+        int[][] data = new int[k][];
+        int[] from = new int[k];
+        int[] to = new int[k];
+        for (int i = 0; i < k; i++) {
+            Run r = sources.get(i);
+            r.fill(len);
+            data[i] = r.data;
+            from[i] = r.pos;
+            to[i] = (int) Math.min(r.limit, (long) r.pos + len);
+        }
+        LoserTree.OfInt merger = new LoserTree.OfInt(data, from, to);
+        merger.drainTo(out, off, len);
+        for (int i = 0; i < k; i++) {
+            sources.get(i).pos = merger.position(i);
+        }
+    }
+
+    private static int[] ensure(int[] buffer, int n) {
+        return buffer.length >= n ? buffer : new int[Math.max(n, buffer.length + (buffer.length >> 1))];
+    }
+
+    // Tramo ordenado: data[pos, limit) en memoria y, si está en disco, unread
+    // enteros más a partir del byte next del archivo
+    private static final class Run {
+        int[] data;
+        int pos;
+        int limit;
+        final FileChannel channel;
+        long next;
+        long unread;
+        // Nivel de compactación de un tramo en disco
+        int tier;
+        private ByteBuffer bytes;
+
+        Run(int[] data, int pos, int limit) {
+            this.data = data;
+            this.pos = pos;
+            this.limit = limit;
+            this.channel = null;
+        }
+
+        Run(FileChannel channel, long count) {
+            this.data = new int[SPILL_BLOCK];
+            this.channel = channel;
+            this.unread = count;
+        }
+
+        // Cursor independiente sobre lo que le queda a este tramo; en disco
+        // comparte el archivo pero lee con posiciones absolutas
+        Run copy() {
+            if (channel == null) return new Run(data, pos, limit);
+            Run c = new Run(channel, unread);
+            c.next = next;
+            c.limit = limit - pos;
+            System.arraycopy(data, pos, c.data, 0, c.limit);
+            return c;
+        }
+
+        long length() {
+            return limit - pos + unread;
+        }
+
+        // Garantiza al menos min(need, length()) valores en data[pos, limit)
+        void fill(int need) {
+            if (channel == null || limit - pos >= need || unread == 0) return;
+            int buffered = limit - pos;
+            System.arraycopy(data, pos, data, 0, buffered);
+            pos = 0;
+            limit = buffered;
+            int count = (int) Math.min(data.length - buffered, unread);
+            if (bytes == null) bytes = ByteBuffer.allocateDirect(SPILL_BLOCK * Integer.BYTES);
+            bytes.clear();
+            bytes.limit(count * Integer.BYTES);
+            try {
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes, next + bytes.position()) < 0) {
+                        throw new EOFException("Tramo en disco truncado");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes.flip();
+            bytes.asIntBuffer().get(data, limit, count);
+            limit += count;
+            next += (long) count * Integer.BYTES;
+            unread -= count;
+        }
+    }
+
+    // Copia los cursores de todos los tramos y los fusiona por lotes
+    private final class Snapshot implements PrimitiveIterator.OfInt {
+        private final int expected = modCount;
+        private final List<Run> sources = new ArrayList<>();
+        private final int[] batch = new int[(int) Math.min(SPILL_BLOCK, Math.max(1, size))];
+        private int pos;
+        private int limit;
+        private long pending = size;
+
+        Snapshot() {
+            for (Run r : sources()) {
+                sources.add(r.copy());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < limit || pending > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (modCount != expected) throw new ConcurrentModificationException();
+            if (pos == limit) {
+                if (pending == 0) throw new NoSuchElementException();
+                limit = (int) Math.min(batch.length, pending);
+                mergeBatch(sources, batch, 0, limit);
+                pending -= limit;
+                pos = 0;
+            }
+            return batch[pos++];
+        }
+    }
+}
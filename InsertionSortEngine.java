@@ -0,0 +1,332 @@
+import java.util.Arrays;
+
+// Ordenamiento por inserción sin dependencias de Swing, pensado como la
+// primitiva para tramos pequeños que usan los demás motores (buckets, merge,
+// quick y la inserción de AdaptiveMergeSort).
+//  - linearSort: la versión de InsercionSort, desplazando de uno en uno.
+//  - binarySort: busca la posición con búsqueda binaria y desplaza el bloque
+//    con System.arraycopy.
+//  - pairSort: inserta dos elementos por vuelta, como el JDK en sus tramos
+//    pequeños.
+//  - shellSort: Shell sort con saltos de Ciura, para reconstruir en el sitio.
+// sort usa pairSort: en la sección "insertion" de SortBenchmark (tramos de 8
+// a 256) iguala a linearSort en tramos pequeños, gana a partir de 64 y supera
+// a Arrays.sort hasta 128 elementos. Los double se comparan con < y >, así
+// que NaN y -0.0 los debe resolver quien llama.
+public final class InsertionSortEngine {
+    // Saltos de Ciura, extendidos multiplicando por 2.25 hasta cubrir int
+    static final int[] GAPS = ciuraGaps();
+
+    private InsertionSortEngine() {
+    }
+
+    private static int[] ciuraGaps() {
+        int[] ciura = {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+        int[] gaps = Arrays.copyOf(ciura, 32);
+        int len = ciura.length;
+        for (long next = (long) (1750 * 2.25); next < Integer.MAX_VALUE; next = (long) (next * 2.25)) {
+            gaps[len++] = (int) next;
+        }
+        return Arrays.copyOf(gaps, len);
+    }
+
+    // Índice del mayor salto menor que n (o -1 si n < 2)
+    static int gapIndex(int n) {
+        int g = GAPS.length - 1;
+        while (g >= 0 && GAPS[g] >= n) g--;
+        return g;
+    }
+
+    // ------------------------------------------------------------- int[]
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    // Primitiva de corte de los demás motores
+    public static void sort(int[] a, int from, int to) {
+        pairSort(a, from, to, null);
+    }
+
+    // trace puede ser null; si no, recibe cada comparación y escritura
+    public static void sort(int[] a, int from, int to, SortTrace trace) {
+        pairSort(a, from, to, trace);
+    }
+
+    // Inserción clásica: busca y desplaza de uno en uno
+    public static void linearSort(int[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    // a[from, start) ya está ordenado; inserta el resto buscando la posición
+    // con búsqueda binaria (tras los iguales, así es estable) y desplazando el
+    // bloque con System.arraycopy. Con primitivos la comparación es barata y
+    // la búsqueda binaria no compensa; conviene cuando ya hay un prefijo
+    // ordenado largo, como en los tramos forzados de AdaptiveMergeSort
+    public static void binarySort(int[] a, int from, int to, int start) {
+        if (start == from) start++;
+        for (; start < to; start++) {
+            int pivot = a[start];
+            int left = from, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (pivot < a[mid]) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    // Inserción por parejas: en cada vuelta toma dos elementos, coloca primero
+    // el mayor y sigue buscando el menor desde donde quedó el mayor, así el
+    // tramo ordenado se recorre una vez por cada dos elementos
+    public static void pairSort(int[] a, int from, int to) {
+        pairSort(a, from, to, null);
+    }
+
+    // Los valores en mano se comparan con la posición de la pareja de la que
+    // salieron (k para el mayor, k + 1 para el menor)
+    static void pairSort(int[] a, int from, int to, SortTrace trace) {
+        int k = from + 1;
+        for (; k + 1 < to; k += 2) {
+            int big = a[k], small = a[k + 1];
+            if (trace != null) trace.compare(k, k + 1);
+            if (big < small) {
+                big = small;
+                small = a[k];
+            }
+            int j = k - 1;
+            while (j >= from && greater(a, j, big, k, trace)) {
+                a[j + 2] = a[j];
+                if (trace != null) trace.write(j + 2, a[j]);
+                j--;
+            }
+            a[j + 2] = big;
+            if (trace != null) trace.write(j + 2, big);
+            while (j >= from && greater(a, j, small, k + 1, trace)) {
+                a[j + 1] = a[j];
+                if (trace != null) trace.write(j + 1, a[j]);
+                j--;
+            }
+            a[j + 1] = small;
+            if (trace != null) trace.write(j + 1, small);
+        }
+        if (k < to) {
+            int last = a[k];
+            int j = k - 1;
+            while (j >= from && greater(a, j, last, k, trace)) {
+                a[j + 1] = a[j];
+                if (trace != null) trace.write(j + 1, a[j]);
+                j--;
+            }
+            a[j + 1] = last;
+            if (trace != null) trace.write(j + 1, last);
+        }
+    }
+
+    // a[i] > v, donde v es un valor en mano tomado de la posición from
+    private static boolean greater(int[] a, int i, int v, int from, SortTrace trace) {
+        if (trace != null) trace.compare(i, from);
+        return a[i] > v;
+    }
+
+    // Shell sort con los saltos de Ciura. Ordena en el mismo arreglo y, como
+    // cada pasada es una inserción con salto, es casi lineal cuando la entrada
+    // ya está casi ordenada; sirve para reconstruir un buffer desordenado sin
+    // memoria auxiliar.
+    public static void shellSort(int[] a, int from, int to) {
+        int n = to - from;
+        int g = gapIndex(n);
+        for (; g >= 0; g--) {
+            int gap = GAPS[g];
+            for (int i = from + gap; i < to; i++) {
+                int key = a[i];
+                int j = i - gap;
+                while (j >= from && a[j] > key) {
+                    a[j + gap] = a[j];
+                    j -= gap;
+                }
+                a[j + gap] = key;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------- long[]
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        pairSort(a, from, to);
+    }
+
+    public static void linearSort(long[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    public static void binarySort(long[] a, int from, int to, int start) {
+        if (start == from) start++;
+        for (; start < to; start++) {
+            long pivot = a[start];
+            int left = from, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (pivot < a[mid]) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    public static void pairSort(long[] a, int from, int to) {
+        int k = from + 1;
+        for (; k + 1 < to; k += 2) {
+            long big = a[k], small = a[k + 1];
+            if (big < small) {
+                big = small;
+                small = a[k];
+            }
+            int j = k - 1;
+            while (j >= from && a[j] > big) {
+                a[j + 2] = a[j];
+                j--;
+            }
+            a[j + 2] = big;
+            while (j >= from && a[j] > small) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = small;
+        }
+        if (k < to) {
+            long last = a[k];
+            int j = k - 1;
+            while (j >= from && a[j] > last) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = last;
+        }
+    }
+
+    public static void shellSort(long[] a, int from, int to) {
+        int n = to - from;
+        int g = gapIndex(n);
+        for (; g >= 0; g--) {
+            int gap = GAPS[g];
+            for (int i = from + gap; i < to; i++) {
+                long key = a[i];
+                int j = i - gap;
+                while (j >= from && a[j] > key) {
+                    a[j + gap] = a[j];
+                    j -= gap;
+                }
+                a[j + gap] = key;
+            }
+        }
+    }
+
+    // ------------------------------------------------------------ double[]
+
+    public static void sort(double[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(double[] a, int from, int to) {
+        pairSort(a, from, to);
+    }
+
+    public static void linearSort(double[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double key = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > key) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = key;
+        }
+    }
+
+    public static void binarySort(double[] a, int from, int to, int start) {
+        if (start == from) start++;
+        for (; start < to; start++) {
+            double pivot = a[start];
+            int left = from, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (pivot < a[mid]) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    public static void pairSort(double[] a, int from, int to) {
+        int k = from + 1;
+        for (; k + 1 < to; k += 2) {
+            double big = a[k], small = a[k + 1];
+            if (big < small) {
+                big = small;
+                small = a[k];
+            }
+            int j = k - 1;
+            while (j >= from && a[j] > big) {
+                a[j + 2] = a[j];
+                j--;
+            }
+            a[j + 2] = big;
+            while (j >= from && a[j] > small) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = small;
+        }
+        if (k < to) {
+            double last = a[k];
+            int j = k - 1;
+            while (j >= from && a[j] > last) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = last;
+        }
+    }
+
+    public static void shellSort(double[] a, int from, int to) {
+        int n = to - from;
+        int g = gapIndex(n);
+        for (; g >= 0; g--) {
+            int gap = GAPS[g];
+            for (int i = from + gap; i < to; i++) {
+                double key = a[i];
+                int j = i - gap;
+                while (j >= from && a[j] > key) {
+                    a[j + gap] = a[j];
+                    j -= gap;
+                }
+                a[j + gap] = key;
+            }
+        }
+    }
+}
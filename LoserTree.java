@@ -0,0 +1,369 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// Fusión de k tramos ordenados con un árbol de perdedores.
+// MergeSortEngine fusiona de a dos tramos; para k tramos (fragmentos,
+// archivos o hilos) eso cuesta log2(k) pasadas sobre los datos. El árbol de
+// perdedores hace una sola pasada: cada nodo interno guarda el tramo que
+// perdió su partido y la clave actual de cada tramo se mantiene en un arreglo
+// plano, así que tras sacar un valor solo se rejuega el camino del tramo
+// ganador contra los perdedores guardados, unas log2(k) comparaciones sin
+// mirar al hermano como en el árbol de ganadores de TournamentTree. Sirve
+// como iterador, como IntStream/LongStream o volcando en bloques a un
+// arreglo de quien llama.
+public final class LoserTree {
+
+    private LoserTree() {
+    }
+
+    // Fusión perezosa de runs[r][from[r], to[r]); los tramos no se copian, así
+    // que no deben modificarse mientras dure la fusión
+    public static final class OfInt implements PrimitiveIterator.OfInt {
+        private final int[][] runs;
+        private final int[] pos;
+        private final int[] end;
+        // Clave actual de cada tramo; Integer.MAX_VALUE si el tramo se agotó (done lo
+        // distingue de un Integer.MAX_VALUE real, solo hace falta mirarlo en empates)
+        private final int[] keys;
+        private final boolean[] done;
+        // tree[0] es el tramo ganador; tree[1, k) guarda el perdedor de cada
+        // partido. La hoja del tramo r es el nodo k + r.
+        private final int[] tree;
+        private final int k;
+        private long remaining;
+
+        public OfInt(int[]... runs) {
+            this(runs, null, null);
+        }
+
+        // from y to pueden ser null para usar cada tramo completo
+        public OfInt(int[][] runs, int[] from, int[] to) {
+            k = runs.length;
+            this.runs = runs.clone();
+            pos = new int[k];
+            end = new int[k];
+            keys = new int[k];
+            done = new boolean[k];
+            tree = new int[Math.max(1, k)];
+            for (int r = 0; r < k; r++) {
+                pos[r] = from == null ? 0 : from[r];
+                end[r] = to == null ? runs[r].length : to[r];
+                if (pos[r] < 0 || pos[r] > end[r] || end[r] > runs[r].length) {
+                    throw new IllegalArgumentException("Rango no válido en el tramo " + r + ": [" +
+                            pos[r] + ", " + end[r] + ")");
+                }
+                remaining += end[r] - pos[r];
+                load(r);
+            }
+            if (k > 0) build();
+        }
+
+        // Juega el torneo completo una vez: O(k)
+        private void build() {
+            int[] winners = new int[2 * k];
+            for (int r = 0; r < k; r++) {
+                winners[k + r] = r;
+            }
+            for (int node = k - 1; node >= 1; node--) {
+                int l = winners[2 * node], r = winners[2 * node + 1];
+                if (beats(r, l)) {
+                    winners[node] = r;
+                    tree[node] = l;
+                } else {
+                    winners[node] = l;
+                    tree[node] = r;
+                }
+            }
+            tree[0] = winners[1];
+        }
+
+        // Carga en keys la siguiente clave del tramo r
+        private void load(int r) {
+            if (pos[r] < end[r]) {
+                keys[r] = runs[r][pos[r]];
+            } else {
+                keys[r] = Integer.MAX_VALUE;
+                done[r] = true;
+            }
+        }
+
+        // a va antes que b: menor clave, y en empate el tramo de menor número
+        // (así la fusión es estable); un tramo agotado nunca gana
+        private boolean beats(int a, int b) {
+            int ka = keys[a], kb = keys[b];
+            return ka < kb || (ka == kb && tieBeats(a, b));
+        }
+
+        private boolean tieBeats(int a, int b) {
+            return !done[a] && (done[b] || a < b);
+        }
+
+        // Avanza el tramo ganador w y rejuega solo su camino: un partido por
+        // nivel contra el perdedor guardado, con la clave del ganador en local
+        private void replay(int w) {
+            int p = ++pos[w];
+            int kw;
+            if (p < end[w]) {
+                kw = runs[w][p];
+            } else {
+                kw = Integer.MAX_VALUE;
+                done[w] = true;
+            }
+            keys[w] = kw;
+            int[] t = tree;
+            int winner = w;
+            for (int node = (w + k) >>> 1; node > 0; node >>>= 1) {
+                int loser = t[node];
+                int kl = keys[loser];
+                if (kl < kw || (kl == kw && tieBeats(loser, winner))) {
+                    t[node] = winner;
+                    winner = loser;
+                    kw = kl;
+                }
+            }
+            t[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        // Menor valor pendiente, sin consumirlo
+        public int peek() {
+            if (remaining == 0) throw new NoSuchElementException();
+            return keys[tree[0]];
+        }
+
+        // Tramo del que sale el próximo valor
+        public int peekRun() {
+            if (remaining == 0) throw new NoSuchElementException();
+            return tree[0];
+        }
+
+        @Override
+        public int nextInt() {
+            if (remaining == 0) throw new NoSuchElementException();
+            int w = tree[0];
+            int v = keys[w];
+            remaining--;
+            replay(w);
+            return v;
+        }
+
+        // Escribe hasta len valores en out desde off y devuelve cuántos escribió;
+        // evita el costo por elemento del iterador
+        public int drainTo(int[] out, int off, int len) {
+            int count = (int) Math.min(len, remaining);
+            for (int i = off, stop = off + count; i < stop; i++) {
+                int w = tree[0];
+                out[i] = keys[w];
+                replay(w);
+            }
+            remaining -= count;
+            return count;
+        }
+
+        public long remaining() {
+            return remaining;
+        }
+
+        // Posición en runs[run] del próximo valor que entregaría ese tramo
+        public int position(int run) {
+            return pos[run];
+        }
+
+        public IntStream stream() {
+            return StreamSupport.intStream(Spliterators.spliterator(this, remaining,
+                    Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL), false);
+        }
+    }
+
+    public static int[] merge(int[]... runs) {
+        OfInt tree = new OfInt(runs);
+        if (tree.remaining() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La fusión no cabe en un arreglo: " + tree.remaining());
+        }
+        int[] out = new int[(int) tree.remaining()];
+        tree.drainTo(out, 0, out.length);
+        return out;
+    }
+
+    // Fusión perezosa de runs[r][from[r], to[r]); los tramos no se copian, así
+    // que no deben modificarse mientras dure la fusión
+    public static final class OfLong implements PrimitiveIterator.OfLong {
+        private final long[][] runs;
+        private final int[] pos;
+        private final int[] end;
+        // Clave actual de cada tramo; Long.MAX_VALUE si el tramo se agotó (done lo
+        // distingue de un Long.MAX_VALUE real, solo hace falta mirarlo en empates)
+        private final long[] keys;
+        private final boolean[] done;
+        // tree[0] es el tramo ganador; tree[1, k) guarda el perdedor de cada
+        // partido. La hoja del tramo r es el nodo k + r.
+        private final int[] tree;
+        private final int k;
+        private long remaining;
+
+        public OfLong(long[]... runs) {
+            this(runs, null, null);
+        }
+
+        // from y to pueden ser null para usar cada tramo completo
+        public OfLong(long[][] runs, int[] from, int[] to) {
+            k = runs.length;
+            this.runs = runs.clone();
+            pos = new int[k];
+            end = new int[k];
+            keys = new long[k];
+            done = new boolean[k];
+            tree = new int[Math.max(1, k)];
+            for (int r = 0; r < k; r++) {
+                pos[r] = from == null ? 0 : from[r];
+                end[r] = to == null ? runs[r].length : to[r];
+                if (pos[r] < 0 || pos[r] > end[r] || end[r] > runs[r].length) {
+                    throw new IllegalArgumentException("Rango no válido en el tramo " + r + ": [" +
+                            pos[r] + ", " + end[r] + ")");
+                }
+                remaining += end[r] - pos[r];
+                load(r);
+            }
+            if (k > 0) build();
+        }
+
+        // Juega el torneo completo una vez: O(k)
+        private void build() {
+            int[] winners = new int[2 * k];
+            for (int r = 0; r < k; r++) {
+                winners[k + r] = r;
+            }
+            for (int node = k - 1; node >= 1; node--) {
+                int l = winners[2 * node], r = winners[2 * node + 1];
+                if (beats(r, l)) {
+                    winners[node] = r;
+                    tree[node] = l;
+                } else {
+                    winners[node] = l;
+                    tree[node] = r;
+                }
+            }
+            tree[0] = winners[1];
+        }
+
+        // Carga en keys la siguiente clave del tramo r
+        private void load(int r) {
+            if (pos[r] < end[r]) {
+                keys[r] = runs[r][pos[r]];
+            } else {
+                keys[r] = Long.MAX_VALUE;
+                done[r] = true;
+            }
+        }
+
+        // a va antes que b: menor clave, y en empate el tramo de menor número
+        // (así la fusión es estable); un tramo agotado nunca gana
+        private boolean beats(int a, int b) {
+            long ka = keys[a], kb = keys[b];
+            return ka < kb || (ka == kb && tieBeats(a, b));
+        }
+
+        private boolean tieBeats(int a, int b) {
+            return !done[a] && (done[b] || a < b);
+        }
+
+        // Avanza el tramo ganador w y rejuega solo su camino: un partido por
+        // nivel contra el perdedor guardado, con la clave del ganador en local
+        private void replay(int w) {
+            int p = ++pos[w];
+            long kw;
+            if (p < end[w]) {
+                kw = runs[w][p];
+            } else {
+                kw = Long.MAX_VALUE;
+                done[w] = true;
+            }
+            keys[w] = kw;
+            int[] t = tree;
+            int winner = w;
+            for (int node = (w + k) >>> 1; node > 0; node >>>= 1) {
+                int loser = t[node];
+                long kl = keys[loser];
+                if (kl < kw || (kl == kw && tieBeats(loser, winner))) {
+                    t[node] = winner;
+                    winner = loser;
+                    kw = kl;
+                }
+            }
+            t[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        // Menor valor pendiente, sin consumirlo
+        public long peek() {
+            if (remaining == 0) throw new NoSuchElementException();
+            return keys[tree[0]];
+        }
+
+        // Tramo del que sale el próximo valor
+        public int peekRun() {
+            if (remaining == 0) throw new NoSuchElementException();
+            return tree[0];
+        }
+
+        @Override
+        public long nextLong() {
+            if (remaining == 0) throw new NoSuchElementException();
+            int w = tree[0];
+            long v = keys[w];
+            remaining--;
+            replay(w);
+            return v;
+        }
+
+        // Escribe hasta len valores en out desde off y devuelve cuántos escribió;
+        // evita el costo por elemento del iterador
+        public int drainTo(long[] out, int off, int len) {
+            int count = (int) Math.min(len, remaining);
+            for (int i = off, stop = off + count; i < stop; i++) {
+                int w = tree[0];
+                out[i] = keys[w];
+                replay(w);
+            }
+            remaining -= count;
+            return count;
+        }
+
+        public long remaining() {
+            return remaining;
+        }
+
+        // Posición en runs[run] del próximo valor que entregaría ese tramo
+        public int position(int run) {
+            return pos[run];
+        }
+
+        public LongStream stream() {
+            return StreamSupport.longStream(Spliterators.spliterator(this, remaining,
+                    Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL), false);
+        }
+    }
+
+    public static long[] merge(long[]... runs) {
+        OfLong tree = new OfLong(runs);
+        if (tree.remaining() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La fusión no cabe en un arreglo: " + tree.remaining());
+        }
+        long[] out = new long[(int) tree.remaining()];
+        tree.drainTo(out, 0, out.length);
+        return out;
+    }
+}
@@ -222,16 +222,21 @@ class MenuMetodos extends JFrame {
             // Mostrar array original
             outputArea.append("\nArray original: " + Arrays.toString(arr));
             
-            // Simulación del proceso de buckets
-            outputArea.append("\n\nDistribución en buckets:");
+            // Reparto real calculado por el motor
+            BucketSortEngine.IntPlan plan = BucketSortEngine.plan(arr, 0, arr.length);
+            outputArea.append("\n\nDistribución en " + plan.buckets + " buckets (mínimo " + plan.min +
+                            ", bucket = (valor - " + plan.min + ") >> " + plan.shift + "):");
             for (int i = 0; i < arr.length; i++) {
-                int bucketIndex = arr[i] / 10;
+                int bucketIndex = plan.bucketOf(arr[i]);
                 outputArea.append("\nElemento " + arr[i] + " → Bucket " + bucketIndex);
             }
+            outputArea.append("\nElementos por bucket: " + Arrays.toString(plan.histogram(arr, 0, arr.length)));
             
-            // Ordenar y mostrar resultado
-            Arrays.sort(arr);
+            // Reparto e inserción en cada bucket, paso a paso
+            outputArea.append("\n\n--- Reparto y ordenamiento de cada bucket ---");
+            SortTrace.Recorder steps = animate(Sorters.BUCKET::sort, arr, outputArea);
             outputArea.append("\n\nResultado final ordenado: " + Arrays.toString(arr));
+            outputArea.append("\n" + summary(steps));
             outputArea.append("\n\nComplejidad: O(n + k) donde n es el número de elementos y k el número de buckets");
         }
     }
@@ -261,30 +266,24 @@ class MenuMetodos extends JFrame {
             outputArea.append("\n\n=== COUNTING SORT ===");
             outputArea.append("\nArray original: " + Arrays.toString(arr));
             
-            // Encontrar el valor máximo
-            int max = Arrays.stream(arr).max().getAsInt();
-            outputArea.append("\nValor máximo encontrado: " + max);
+            // Encontrar mínimo y máximo en un solo recorrido
+            long minMax = CountingSortEngine.minMax(arr, 0, arr.length);
+            int min = CountingSortEngine.min(minMax);
+            int max = CountingSortEngine.max(minMax);
+            outputArea.append("\nValor mínimo encontrado: " + min + ", valor máximo: " + max);
             
-            // Crear array de conteo
-            int[] count = new int[max + 1];
-            outputArea.append("\nArray de conteo inicializado de tamaño: " + (max + 1));
+            // Crear array de conteo indexado por valor - mínimo
+            int[] count = new int[max - min + 1];
+            outputArea.append("\nArray de conteo inicializado de tamaño: " + count.length);
             
-            // Contar frecuencias
-            for (int num : arr) {
-                count[num]++;
-            }
-            outputArea.append("\nFrecuencias contadas: " + Arrays.toString(count));
-            
-            // Reconstruir array ordenado
-            int[] result = new int[arr.length];
-            int index = 0;
-            for (int i = 0; i < count.length; i++) {
-                for (int j = 0; j < count[i]; j++) {
-                    result[index++] = i;
-                }
-            }
+            // Contar frecuencias y reescribir el arreglo en su lugar
+            outputArea.append("\n\n--- Reescritura en orden ---");
+            SortTrace.Recorder steps = animate(
+                    (a, from, to, trace) -> CountingSortEngine.sort(a, from, to, count, trace), arr, outputArea);
+            outputArea.append("\nFrecuencias contadas (desde " + min + "): " + Arrays.toString(count));
             
-            outputArea.append("\nResultado ordenado: " + Arrays.toString(result));
+            outputArea.append("\nResultado ordenado: " + Arrays.toString(arr));
+            outputArea.append("\n" + summary(steps));
             outputArea.append("\n\nComplejidad: O(n + k) donde k es el rango de valores");
         }
     }
@@ -292,7 +291,8 @@ class MenuMetodos extends JFrame {
     // 3. Counting Sort para Cartas
     public class CountingSortCartas extends JInternalFrame {
         private JPanel cardPanel = new JPanel(new GridLayout(2, 5, 10, 10));
-        private String[] cartas = {"K♥", "3♠", "A♦", "5♣", "2♥", "J♠", "7♦", "Q♣", "4♥", "9♠"};
+        private Random random = new Random();
+        private CardDeck cartas = CardDeck.parse("K♥", "3♠", "A♦", "5♣", "2♥", "J♠", "7♦", "Q♣", "4♥", "9♠");
         
         public CountingSortCartas() {
             super("Counting Sort (Cartas)", true, true, true, true);
@@ -317,7 +317,8 @@ class MenuMetodos extends JFrame {
         
         private void updateCardDisplay() {
             cardPanel.removeAll();
-            for (String carta : cartas) {
+            for (int i = 0; i < cartas.size(); i++) {
+                String carta = cartas.toString(i);
                 JLabel cardLabel = new JLabel(carta, SwingConstants.CENTER);
                 cardLabel.setFont(new Font("Arial", Font.BOLD, 18));
                 cardLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 2));
@@ -339,29 +340,15 @@ class MenuMetodos extends JFrame {
         }
         
         private void sortCards() {
-            // Ordenar por valor (A=1, J=11, Q=12, K=13)
-            Arrays.sort(cartas, (a, b) -> {
-                int valA = getCardValue(a.substring(0, a.length()-1));
-                int valB = getCardValue(b.substring(0, b.length()-1));
-                return Integer.compare(valA, valB);
-            });
+            // Counting sort por valor (A=1, J=11, Q=12, K=13) y palo
+            cartas.sort();
             updateCardDisplay();
         }
         
         private void shuffleCards() {
-            java.util.Collections.shuffle(Arrays.asList(cartas));
+            cartas.shuffle(random);
             updateCardDisplay();
         }
-        
-        private int getCardValue(String card) {
-            return switch (card) {
-                case "A" -> 1;
-                case "J" -> 11;
-                case "Q" -> 12;
-                case "K" -> 13;
-                default -> Integer.parseInt(card);
-            };
-        }
     }
 
     // 4. Heap Sort
@@ -391,53 +378,14 @@ class MenuMetodos extends JFrame {
             outputArea.append("\n\n=== HEAP SORT ===");
             outputArea.append("\nArray inicial: " + Arrays.toString(workingArray));
             
-            // Construir max heap
-            outputArea.append("\n\n--- Construyendo Max Heap ---");
-            for (int i = workingArray.length / 2 - 1; i >= 0; i--) {
-                heapify(workingArray, workingArray.length, i, true);
-            }
-            
-            // Extraer elementos uno por uno del heap
-            outputArea.append("\n\n--- Extrayendo elementos del heap ---");
-            for (int i = workingArray.length - 1; i >= 0; i--) {
-                // Mover la raíz actual al final
-                int temp = workingArray[0];
-                workingArray[0] = workingArray[i];
-                workingArray[i] = temp;
-                
-                outputArea.append("\nPaso " + (arr.length - i) + ": " + Arrays.toString(workingArray));
-                
-                // Llamar heapify en el heap reducido
-                heapify(workingArray, i, 0, false);
-            }
+            // Primero se construye el max heap y luego se extrae la raíz al final
+            outputArea.append("\n\n--- Construcción del heap y extracciones ---");
+            SortTrace.Recorder steps = animate(Sorters.HEAP::sort, workingArray, outputArea);
             
             outputArea.append("\n\nResultado final: " + Arrays.toString(workingArray));
+            outputArea.append("\n" + summary(steps));
             outputArea.append("\nComplejidad: O(n log n)");
         }
-        
-        private void heapify(int[] arr, int n, int i, boolean showSteps) {
-            int largest = i;
-            int left = 2 * i + 1;
-            int right = 2 * i + 2;
-            
-            if (left < n && arr[left] > arr[largest])
-                largest = left;
-                
-            if (right < n && arr[right] > arr[largest])
-                largest = right;
-                
-            if (largest != i) {
-                int swap = arr[i];
-                arr[i] = arr[largest];
-                arr[largest] = swap;
-                
-                if (showSteps) {
-                    outputArea.append("\nHeapify en índice " + i + ": " + Arrays.toString(arr));
-                }
-                
-                heapify(arr, n, largest, showSteps);
-            }
-        }
     }
 
     // 5. Merge Sort
@@ -451,8 +399,11 @@ class MenuMetodos extends JFrame {
             JPanel controlPanel = new JPanel();
             JButton sortButton = new JButton("Ejecutar Merge Sort");
             sortButton.addActionListener(e -> executeMergeSort());
+            JButton adaptiveButton = new JButton("Modo adaptativo");
+            adaptiveButton.addActionListener(e -> executeAdaptiveSort());
             
             controlPanel.add(sortButton);
+            controlPanel.add(adaptiveButton);
             add(controlPanel, BorderLayout.NORTH);
             add(new JScrollPane(outputArea), BorderLayout.CENTER);
             
@@ -464,67 +415,27 @@ class MenuMetodos extends JFrame {
             int[] arr = {38, 27, 43, 3, 9, 82, 10};
             outputArea.append("\n\n=== MERGE SORT ===");
             outputArea.append("\nArray original: " + Arrays.toString(arr));
-            outputArea.append("\n\n--- Proceso de división y fusión ---");
+            outputArea.append("\n\n--- Pasos del motor (tramos de hasta " + MergeSortEngine.INSERTION_CUTOFF +
+                            " elementos se ordenan por inserción) ---");
             
-            mergeSort(arr, 0, arr.length - 1, 0);
+            SortTrace.Recorder steps = animate(Sorters.MERGE::sort, arr, outputArea);
             
             outputArea.append("\n\nResultado final: " + Arrays.toString(arr));
+            outputArea.append("\n" + summary(steps));
             outputArea.append("\nComplejidad: O(n log n)");
         }
         
-        private void mergeSort(int[] arr, int left, int right, int depth) {
-            if (left < right) {
-                int mid = left + (right - left) / 2;
-                
-                String indent = "  ".repeat(depth);
-                outputArea.append("\n" + indent + "Dividiendo: índices " + left + "-" + right + 
-                                " (medio: " + mid + ")");
-                
-                mergeSort(arr, left, mid, depth + 1);
-                mergeSort(arr, mid + 1, right, depth + 1);
-                
-                merge(arr, left, mid, right, depth);
-            }
-        }
-        
-        private void merge(int[] arr, int left, int mid, int right, int depth) {
-            int n1 = mid - left + 1;
-            int n2 = right - mid;
-            
-            int[] leftArr = new int[n1];
-            int[] rightArr = new int[n2];
+        // Merge sort natural: aprovecha los tramos que ya vienen ordenados
+        private void executeAdaptiveSort() {
+            int[] arr = {3, 9, 10, 27, 38, 43, 82, 50, 40, 30, 83, 90, 91};
+            outputArea.append("\n\n=== MERGE SORT ADAPTATIVO ===");
+            outputArea.append("\nArray casi ordenado: " + Arrays.toString(arr));
+            outputArea.append("\nTramos naturales detectados: " + AdaptiveMergeSort.countRuns(arr));
             
-            System.arraycopy(arr, left, leftArr, 0, n1);
-            System.arraycopy(arr, mid + 1, rightArr, 0, n2);
-            
-            int i = 0, j = 0, k = left;
-            
-            while (i < n1 && j < n2) {
-                if (leftArr[i] <= rightArr[j]) {
-                    arr[k] = leftArr[i];
-                    i++;
-                } else {
-                    arr[k] = rightArr[j];
-                    j++;
-                }
-                k++;
-            }
+            AdaptiveMergeSort.sort(arr);
             
-            while (i < n1) {
-                arr[k] = leftArr[i];
-                i++;
-                k++;
-            }
-            
-            while (j < n2) {
-                arr[k] = rightArr[j];
-                j++;
-                k++;
-            }
-            
-            String indent = "  ".repeat(depth);
-            outputArea.append("\n" + indent + "Fusionando: " + 
-                            Arrays.toString(Arrays.copyOfRange(arr, left, right + 1)));
+            outputArea.append("\nResultado final: " + Arrays.toString(arr));
+            outputArea.append("\nComplejidad: O(n) si ya está ordenado, O(n log n) en el peor caso");
         }
     }
 
@@ -554,26 +465,10 @@ class MenuMetodos extends JFrame {
             outputArea.append("\nArray original: " + Arrays.toString(arr));
             outputArea.append("\n\n--- Proceso paso a paso ---");
             
-            for (int i = 1; i < arr.length; i++) {
-                int key = arr[i];
-                int j = i - 1;
-                
-                outputArea.append("\n\nPaso " + i + ":");
-                outputArea.append("\n  Elemento a insertar: " + key);
-                outputArea.append("\n  Array actual: " + Arrays.toString(arr));
-                
-                while (j >= 0 && arr[j] > key) {
-                    arr[j + 1] = arr[j];
-                    j--;
-                    outputArea.append("\n  Moviendo " + arr[j + 2] + " hacia la derecha");
-                }
-                
-                arr[j + 1] = key;
-                outputArea.append("\n  Insertando " + key + " en posición " + (j + 1));
-                outputArea.append("\n  Resultado: " + Arrays.toString(arr));
-            }
+            SortTrace.Recorder steps = animate(Sorters.INSERTION::sort, arr, outputArea);
             
             outputArea.append("\n\nArray final ordenado: " + Arrays.toString(arr));
+            outputArea.append("\n" + summary(steps));
             outputArea.append("\nComplejidad: O(n²) en el peor caso, O(n) en el mejor caso");
         }
     }
@@ -602,54 +497,14 @@ class MenuMetodos extends JFrame {
             int[] arr = {10, 7, 8, 9, 1, 5};
             outputArea.append("\n\n=== QUICK SORT ===");
             outputArea.append("\nArray original: " + Arrays.toString(arr));
-            outputArea.append("\n\n--- Proceso de particionado ---");
+            outputArea.append("\n\n--- Pasos del motor (tramos de hasta " + QuickSortEngine.INSERTION_CUTOFF +
+                            " elementos se ordenan por inserción) ---");
             
-            quickSort(arr, 0, arr.length - 1, 0);
+            SortTrace.Recorder steps = animate(Sorters.QUICK::sort, arr, outputArea);
             
             outputArea.append("\n\nResultado final: " + Arrays.toString(arr));
-            outputArea.append("\nComplejidad promedio: O(n log n), peor caso: O(n²)");
-        }
-        
-        private void quickSort(int[] arr, int low, int high, int depth) {
-            if (low < high) {
-                String indent = "  ".repeat(depth);
-                outputArea.append("\n" + indent + "Ordenando rango [" + low + ", " + high + "]");
-                
-                int pivotIndex = partition(arr, low, high, depth);
-                
-                outputArea.append("\n" + indent + "Pivot en posición " + pivotIndex + 
-                                ": " + Arrays.toString(Arrays.copyOfRange(arr, low, high + 1)));
-                
-                quickSort(arr, low, pivotIndex - 1, depth + 1);
-                quickSort(arr, pivotIndex + 1, high, depth + 1);
-            }
-        }
-        
-        private int partition(int[] arr, int low, int high, int depth) {
-            int pivot = arr[high];
-            String indent = "  ".repeat(depth);
-            outputArea.append("\n" + indent + "Pivot seleccionado: " + pivot);
-            
-            int i = low - 1;
-            
-            for (int j = low; j < high; j++) {
-                if (arr[j] < pivot) {
-                    i++;
-                    int temp = arr[i];
-                    arr[i] = arr[j];
-                    arr[j] = temp;
-                    
-                    if (i != j) {
-                        outputArea.append("\n" + indent + "Intercambiando " + arr[j] + " y " + arr[i]);
-                    }
-                }
-            }
-            
-            int temp = arr[i + 1];
-            arr[i + 1] = arr[high];
-            arr[high] = temp;
-            
-            return i + 1;
+            outputArea.append("\n" + summary(steps));
+            outputArea.append("\nComplejidad: O(n log n); si la recursión se hunde demasiado pasa a heap sort");
         }
     }
 
@@ -664,8 +519,11 @@ class MenuMetodos extends JFrame {
             JPanel controlPanel = new JPanel();
             JButton sortButton = new JButton("Ejecutar Selection Sort");
             sortButton.addActionListener(e -> executeSelectionSort());
+            JButton tournamentButton = new JButton("Modo torneo");
+            tournamentButton.addActionListener(e -> executeTournamentSort());
             
             controlPanel.add(sortButton);
+            controlPanel.add(tournamentButton);
             add(controlPanel, BorderLayout.NORTH);
             add(new JScrollPane(outputArea), BorderLayout.CENTER);
             
@@ -679,37 +537,75 @@ class MenuMetodos extends JFrame {
             outputArea.append("\nArray original: " + Arrays.toString(arr));
             outputArea.append("\n\n--- Proceso de selección ---");
             
-            for (int i = 0; i < arr.length - 1; i++) {
-                int minIndex = i;
-                
-                outputArea.append("\n\nPaso " + (i + 1) + ":");
-                outputArea.append("\n  Buscando el mínimo desde posición " + i);
-                outputArea.append("\n  Array actual: " + Arrays.toString(arr));
-                
-                for (int j = i + 1; j < arr.length; j++) {
-                    if (arr[j] < arr[minIndex]) {
-                        minIndex = j;
-                    }
-                }
-                
-                outputArea.append("\n  Mínimo encontrado: " + arr[minIndex] + " en posición " + minIndex);
-                
-                if (minIndex != i) {
-                    int temp = arr[minIndex];
-                    arr[minIndex] = arr[i];
-                    arr[i] = temp;
-                    
-                    outputArea.append("\n  Intercambiando " + arr[minIndex] + " y " + arr[i]);
-                } else {
-                    outputArea.append("\n  No hay intercambio necesario");
-                }
-                
-                outputArea.append("\n  Resultado: " + Arrays.toString(arr));
-            }
+            SortTrace.Recorder steps = animate(Sorters.SELECTION::sort, arr, outputArea);
             
             outputArea.append("\n\nArray final ordenado: " + Arrays.toString(arr));
+            outputArea.append("\n" + summary(steps));
             outputArea.append("\nComplejidad: O(n²) en todos los casos");
         }
+        
+        // Árbol de torneo: cada mínimo siguiente solo rejuega su camino
+        private void executeTournamentSort() {
+            int[] arr = {64, 25, 12, 22, 11};
+            outputArea.append("\n\n=== SELECTION SORT POR TORNEO ===");
+            outputArea.append("\nArray original: " + Arrays.toString(arr));
+            
+            TournamentTree.OfInt tree = new TournamentTree.OfInt(arr);
+            for (int i = 0; tree.hasNext(); i++) {
+                arr[i] = tree.nextInt();
+                outputArea.append("\n  Ganador " + (i + 1) + ": " + arr[i]);
+            }
+            
+            outputArea.append("\n\nArray final ordenado: " + Arrays.toString(arr));
+            outputArea.append("\nComplejidad: O(n) para construir y O(log n) por cada mínimo");
+        }
+    }
+
+    // Ordena arr con el motor grabando sus pasos y luego los reproduce en
+    // output sobre una copia del arreglo original
+    private SortTrace.Recorder animate(Sorters.Traced sorter, int[] arr, JTextArea output) {
+        int[] start = arr.clone();
+        SortTrace.Recorder steps = new SortTrace.Recorder();
+        sorter.sort(arr, 0, arr.length, steps);
+        steps.replay(new TraceArea(output, start));
+        return steps;
+    }
+
+    private static String summary(SortTrace.Recorder steps) {
+        return "Comparaciones: " + steps.count(SortTrace.COMPARE) +
+               ", intercambios: " + steps.count(SortTrace.SWAP) +
+               ", escrituras: " + steps.count(SortTrace.WRITE);
+    }
+
+    // Receptor de traza que aplica cada paso sobre su propia copia del arreglo
+    // y la escribe en un JTextArea; los algoritmos están en los motores y aquí
+    // solo se dibujan sus eventos
+    public class TraceArea implements SortTrace {
+        private final JTextArea output;
+        private final int[] arr;
+        
+        public TraceArea(JTextArea output, int[] start) {
+            this.output = output;
+            this.arr = start.clone();
+        }
+        
+        @Override
+        public void compare(int i, int j) {
+        }
+        
+        @Override
+        public void swap(int i, int j) {
+            int v = arr[i];
+            arr[i] = arr[j];
+            arr[j] = v;
+            output.append("\n  Intercambiando " + arr[j] + " y " + arr[i] + ": " + Arrays.toString(arr));
+        }
+        
+        @Override
+        public void write(int i, int value) {
+            arr[i] = value;
+            output.append("\n  Posición " + i + " <- " + value + ": " + Arrays.toString(arr));
+        }
     }
 
     // Clase CajadeComida para QuickSort
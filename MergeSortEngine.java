@@ -0,0 +1,254 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Motor de Merge Sort estable sin dependencias de Swing.
+// Reserva un único buffer por ordenamiento (o usa el de quien llama) y
+// alterna los papeles de origen y destino en cada nivel, así que no hay
+// copias ni arreglos nuevos por cada fusión. Si las dos mitades ya están en
+// orden (a[mid - 1] <= a[mid]) se omite la fusión, y los tramos pequeños se
+// ordenan con InsertionSortEngine. La versión secuencial de int[] acepta un
+// SortTrace opcional.
+public final class MergeSortEngine {
+    // Tramos de este tamaño o menos se ordenan por inserción
+    static final int INSERTION_CUTOFF = 32;
+    // Umbral por defecto del modo paralelo: por debajo, ordenar y fusionar es secuencial
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private MergeSortEngine() {
+    }
+
+    // ---------------------------------------------------------------- int[]
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    // scratch puede ser null; si no, debe tener al menos to - from posiciones
+    public static void sort(int[] a, int from, int to, int[] scratch) {
+        sort(a, from, to, scratch, null);
+    }
+
+    // trace puede ser null; si no, recibe los pasos de los niveles que
+    // escriben en a. Las fusiones intermedias sobre scratch no se avisan.
+    public static void sort(int[] a, int from, int to, int[] scratch, SortTrace trace) {
+        int n = to - from;
+        if (n <= INSERTION_CUTOFF) {
+            InsertionSortEngine.sort(a, from, to, trace);
+            return;
+        }
+        if (scratch == null) scratch = new int[n];
+        System.arraycopy(a, from, scratch, 0, n);
+        sortInto(scratch, 0, a, from, 0, n, trace, true);
+    }
+
+    static void sortInto(int[] src, int sOff, int[] dst, int dOff, int lo, int hi) {
+        sortInto(src, sOff, dst, dOff, lo, hi, null, false);
+    }
+
+    // Ordena dst[dOff + lo, dOff + hi) usando src[sOff + lo, sOff + hi), que
+    // empieza con el mismo contenido, como auxiliar. Los niveles alternan el
+    // destino; trace solo recibe los pasos de los que escriben en a (toA).
+    static void sortInto(int[] src, int sOff, int[] dst, int dOff, int lo, int hi,
+                         SortTrace trace, boolean toA) {
+        SortTrace here = toA ? trace : null;
+        if (hi - lo <= INSERTION_CUTOFF) {
+            InsertionSortEngine.sort(dst, dOff + lo, dOff + hi, here);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sortInto(dst, dOff, src, sOff, lo, mid, trace, !toA);
+        sortInto(dst, dOff, src, sOff, mid, hi, trace, !toA);
+        if (here != null) here.compare(dOff + mid - 1, dOff + mid);
+        if (src[sOff + mid - 1] <= src[sOff + mid]) {
+            copy(src, sOff + lo, dst, dOff + lo, hi - lo, here);
+            return;
+        }
+        merge(src, sOff + lo, sOff + mid, sOff + hi, dst, dOff + lo, here);
+    }
+
+    static void merge(int[] src, int lo, int mid, int hi, int[] dst, int out) {
+        merge(src, lo, mid, hi, dst, out, null);
+    }
+
+    // Fusiona src[lo, mid) y src[mid, hi) en dst desde out; en empates gana
+    // la izquierda, lo que mantiene la estabilidad. Con trace, cada valor de
+    // src se identifica por la posición de dst que le corresponde antes de
+    // fusionar (out - lo más su índice).
+    static void merge(int[] src, int lo, int mid, int hi, int[] dst, int out, SortTrace trace) {
+        if (trace == null) {
+            mergeRuns(src, lo, mid, mid, hi, dst, out);
+            return;
+        }
+        int shift = out - lo;
+        int i = lo, j = mid;
+        while (i < mid && j < hi) {
+            trace.compare(j + shift, i + shift);
+            int v = src[j] < src[i] ? src[j++] : src[i++];
+            dst[out] = v;
+            trace.write(out++, v);
+        }
+        if (i < mid) copy(src, i, dst, out, mid - i, trace);
+        else if (j < hi) copy(src, j, dst, out, hi - j, trace);
+    }
+
+    // System.arraycopy que avisa cada posición escrita si hay receptor
+    private static void copy(int[] src, int from, int[] dst, int out, int length, SortTrace trace) {
+        System.arraycopy(src, from, dst, out, length);
+        if (trace == null) return;
+        for (int k = out; k < out + length; k++) {
+            trace.write(k, dst[k]);
+        }
+    }
+
+    // ------------------------------------------------------- int[] paralelo
+
+    public static void parallelSort(int[] a) {
+        parallelSort(a, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    // Ordena ambas mitades como tareas separadas y también reparte cada fusión:
+    // la salida se parte por la mitad y una búsqueda binaria (co-rank) decide
+    // cuántos elementos aporta cada mitad, así los últimos niveles usan todos
+    // los hilos. Estable, con un único buffer auxiliar.
+    public static void parallelSort(int[] a, ForkJoinPool pool, int threshold) {
+        int n = a.length;
+        int limit = Math.max(threshold, INSERTION_CUTOFF + 1);
+        if (n <= limit || pool.getParallelism() < 2) {
+            sort(a, 0, n, null);
+            return;
+        }
+        int[] scratch = a.clone();
+        pool.invoke(new SortTask(scratch, a, 0, n, limit));
+    }
+
+    // Equivalente paralelo de sortInto con desplazamientos nulos
+    static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] src, dst;
+        final int lo, hi, threshold;
+
+        SortTask(int[] src, int[] dst, int lo, int hi, int threshold) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                sortInto(src, 0, dst, 0, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(dst, src, lo, mid, threshold),
+                      new SortTask(dst, src, mid, hi, threshold));
+            if (src[mid - 1] <= src[mid]) {
+                System.arraycopy(src, lo, dst, lo, hi - lo);
+                return;
+            }
+            new MergeTask(src, lo, mid, mid, hi, dst, lo, threshold).compute();
+        }
+    }
+
+    // Fusiona src[lo1, hi1) con src[lo2, hi2) en dst desde out
+    static final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] src, dst;
+        final int lo1, hi1, lo2, hi2, out, threshold;
+
+        MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out, int threshold) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1, n2 = hi2 - lo2;
+            if (n1 + n2 <= threshold) {
+                mergeRuns(src, lo1, hi1, lo2, hi2, dst, out);
+                return;
+            }
+            int k = (n1 + n2) >>> 1;
+            int i = coRank(src, lo1, n1, lo2, n2, k);
+            int j = k - i;
+            invokeAll(new MergeTask(src, lo1, lo1 + i, lo2, lo2 + j, dst, out, threshold),
+                      new MergeTask(src, lo1 + i, hi1, lo2 + j, hi2, dst, out + k, threshold));
+        }
+    }
+
+    // Cuántos de los k primeros elementos de la fusión estable salen de la
+    // izquierda: el menor i tal que no haga falta tomar otro de la izquierda
+    static int coRank(int[] src, int lo1, int n1, int lo2, int n2, int k) {
+        int lo = Math.max(0, k - n2), hi = Math.min(k, n1);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            int j = k - i;
+            if (src[lo1 + i] <= src[lo2 + j - 1]) {
+                lo = i + 1;
+            } else {
+                hi = i;
+            }
+        }
+        return lo;
+    }
+
+    // Fusión estable de dos tramos no necesariamente contiguos
+    static void mergeRuns(int[] src, int i, int hi1, int j, int hi2, int[] dst, int out) {
+        while (i < hi1 && j < hi2) {
+            dst[out++] = src[j] < src[i] ? src[j++] : src[i++];
+        }
+        if (i < hi1) System.arraycopy(src, i, dst, out, hi1 - i);
+        else if (j < hi2) System.arraycopy(src, j, dst, out, hi2 - j);
+    }
+
+    // --------------------------------------------------------------- long[]
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    public static void sort(long[] a, int from, int to, long[] scratch) {
+        int n = to - from;
+        if (n <= INSERTION_CUTOFF) {
+            InsertionSortEngine.sort(a, from, to);
+            return;
+        }
+        if (scratch == null) scratch = new long[n];
+        System.arraycopy(a, from, scratch, 0, n);
+        sortInto(scratch, 0, a, from, 0, n);
+    }
+
+    private static void sortInto(long[] src, int sOff, long[] dst, int dOff, int lo, int hi) {
+        if (hi - lo <= INSERTION_CUTOFF) {
+            InsertionSortEngine.sort(dst, dOff + lo, dOff + hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sortInto(dst, dOff, src, sOff, lo, mid);
+        sortInto(dst, dOff, src, sOff, mid, hi);
+        if (src[sOff + mid - 1] <= src[sOff + mid]) {
+            System.arraycopy(src, sOff + lo, dst, dOff + lo, hi - lo);
+            return;
+        }
+        merge(src, sOff + lo, sOff + mid, sOff + hi, dst, dOff + lo);
+    }
+
+    static void merge(long[] src, int lo, int mid, int hi, long[] dst, int out) {
+        int i = lo, j = mid;
+        while (i < mid && j < hi) {
+            dst[out++] = src[j] < src[i] ? src[j++] : src[i++];
+        }
+        if (i < mid) System.arraycopy(src, i, dst, out, mid - i);
+        else if (j < hi) System.arraycopy(src, j, dst, out, hi - j);
+    }
+}
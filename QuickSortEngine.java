@@ -0,0 +1,748 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Motor de Quick Sort estilo introsort, sin dependencias de Swing.
+//  - Pivote: mediana de tres, o "ninther" (mediana de tres medianas de tres)
+//    en tramos grandes, así la entrada ordenada o inversa no degrada a O(n²).
+//  - Límite de profundidad 2·log2(n): si se supera se pasa a heap sort, lo
+//    que garantiza O(n log n) en cualquier entrada.
+//  - Solo se recurre sobre la parte menor y se itera sobre la mayor, así la
+//    pila nunca pasa de O(log n).
+//  - Los tramos pequeños se terminan con InsertionSortEngine.
+// El modo paralelo reparte las subparticiones como tareas ForkJoin sin
+// memoria auxiliar O(n): ordena en el mismo arreglo.
+// La partición es intercambiable: Hoare (por defecto), de tres vías (bandera
+// holandesa, para claves con muchos repetidos), de doble pivote (Yaroslavskiy)
+// o por bloques (BlockQuicksort, para datos aleatorios).
+public final class QuickSortEngine {
+    static final int INSERTION_CUTOFF = 24;
+    static final int NINTHER_THRESHOLD = 128;
+    // Elementos por bloque en la partición por bloques
+    static final int BLOCK = 128;
+    // Umbral por defecto del modo paralelo: por debajo, la tarea es secuencial
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    public enum Partitioning {
+        // Hoare con parada en los iguales
+        HOARE,
+        // Menores / iguales / mayores; los iguales al pivote no vuelven a tocarse
+        THREE_WAY,
+        // Dos pivotes y tres partes, como Arrays.sort de la JDK
+        DUAL_PIVOT,
+        // Comparaciones sin saltos guardadas en buffers de desplazamientos e
+        // intercambios en lote: evita los fallos de predicción con datos aleatorios
+        BLOCK
+    }
+
+    private QuickSortEngine() {
+    }
+
+    // Profundidad máxima antes de recurrir a heap sort
+    static int depthLimit(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(1, n)));
+    }
+
+    // ---------------------------------------------------------------- int[]
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(int[] a, int from, int to) {
+        introSort(a, from, to, depthLimit(to - from), null);
+    }
+
+    // trace puede ser null; si no, recibe cada comparación e intercambio
+    // del introsort con partición de Hoare
+    public static void sort(int[] a, int from, int to, SortTrace trace) {
+        introSort(a, from, to, depthLimit(to - from), trace);
+    }
+
+    public static void sort(int[] a, Partitioning partitioning) {
+        sort(a, 0, a.length, partitioning);
+    }
+
+    public static void sort(int[] a, int from, int to, Partitioning partitioning) {
+        int depth = depthLimit(to - from);
+        switch (partitioning) {
+            case THREE_WAY:
+                threeWaySort(a, from, to, depth);
+                break;
+            case DUAL_PIVOT:
+                dualPivotSort(a, from, to, depth);
+                break;
+            case BLOCK:
+                blockSort(a, from, to, depth, new int[2 * BLOCK]);
+                break;
+            default:
+                introSort(a, from, to, depth, null);
+                break;
+        }
+    }
+
+    public static void parallelSort(int[] a) {
+        parallelSort(a, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    // pool permite compartir el ejecutor de la aplicación; threshold es el
+    // tamaño por debajo del cual una subpartición se ordena secuencialmente
+    public static void parallelSort(int[] a, ForkJoinPool pool, int threshold) {
+        int n = a.length;
+        int limit = Math.max(threshold, INSERTION_CUTOFF + 1);
+        if (n <= limit || pool.getParallelism() < 2) {
+            blockSort(a, 0, n, depthLimit(n), new int[2 * BLOCK]);
+            return;
+        }
+        pool.invoke(new IntQuickTask(a, 0, n, depthLimit(n), limit));
+    }
+
+    static final class IntQuickTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] a;
+        final int lo, hi, depth, threshold;
+
+        IntQuickTask(int[] a, int lo, int hi, int depth, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                blockSort(a, lo, hi, depth, new int[2 * BLOCK]);
+                return;
+            }
+            if (depth == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int p = partition(a, lo, hi);
+            invokeAll(new IntQuickTask(a, lo, p, depth - 1, threshold),
+                      new IntQuickTask(a, p + 1, hi, depth - 1, threshold));
+        }
+    }
+
+    static void introSort(int[] a, int lo, int hi, int depth, SortTrace trace) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi, trace);
+                return;
+            }
+            int p = partition(a, lo, hi, trace);
+            if (p - lo < hi - p) {
+                introSort(a, lo, p, depth, trace);
+                lo = p + 1;
+            } else {
+                introSort(a, p + 1, hi, depth, trace);
+                hi = p;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi, trace);
+    }
+
+    static int partition(int[] a, int lo, int hi) {
+        return partition(a, lo, hi, null);
+    }
+
+    // Partición de Hoare con el pivote en a[lo]; se detiene en los iguales
+    // por ambos lados para repartir bien las claves repetidas. Devuelve la
+    // posición final del pivote.
+    static int partition(int[] a, int lo, int hi, SortTrace trace) {
+        swap(a, lo, selectPivot(a, lo, hi, trace), trace);
+        int pivot = a[lo];
+        int i = lo, j = hi;
+        while (true) {
+            while (below(a, ++i, pivot, lo, trace)) {
+                if (i == hi - 1) break;
+            }
+            while (above(a, --j, pivot, lo, trace)) {
+                // a[lo] == pivot detiene el recorrido
+            }
+            if (i >= j) break;
+            swap(a, i, j, trace);
+        }
+        swap(a, lo, j, trace);
+        return j;
+    }
+
+    // Dijkstra: [lo, lt) < pivote, [lt, gt) == pivote, [gt, hi) > pivote.
+    // Con pocas claves distintas cada valor se fija en una sola pasada.
+    static void threeWaySort(int[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int pivot = a[selectPivot(a, lo, hi)];
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                int v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[--gt];
+                    a[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - lo < hi - gt) {
+                threeWaySort(a, lo, lt, depth);
+                lo = gt;
+            } else {
+                threeWaySort(a, gt, hi, depth);
+                hi = lt;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Yaroslavskiy: pivotes p1 <= p2 tomados de cinco muestras;
+    // [lo, lt) < p1, [lt, gt] entre ambos, (gt, hi) > p2
+    static void dualPivotSort(int[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int n = hi - lo, last = hi - 1;
+            int seventh = (n >> 3) + (n >> 6) + 1;
+            int e3 = lo + (n >>> 1);
+            int e2 = e3 - seventh, e1 = e2 - seventh;
+            int e4 = e3 + seventh, e5 = e4 + seventh;
+            sortFive(a, e1, e2, e3, e4, e5);
+            swap(a, lo, e2);
+            swap(a, last, e4);
+            int p1 = a[lo], p2 = a[last];
+
+            int lt = lo + 1, gt = last - 1;
+            for (int k = lt; k <= gt; k++) {
+                int v = a[k];
+                if (v < p1) {
+                    swap(a, k, lt++);
+                } else if (v > p2) {
+                    while (a[gt] > p2 && k < gt) gt--;
+                    swap(a, k, gt--);
+                    if (a[k] < p1) swap(a, k, lt++);
+                }
+            }
+            swap(a, lo, --lt);
+            swap(a, last, ++gt);
+
+            // Parte central [midLo, midHi); si p1 == p2 ya está toda en su sitio
+            int midLo = lt + 1, midHi = gt;
+            if (p1 == p2) {
+                midHi = midLo;
+            } else if (midHi - midLo > n >>> 1) {
+                // Parte central grande: apartar los iguales a los pivotes
+                while (midLo < midHi && a[midLo] == p1) midLo++;
+                while (midLo < midHi && a[midHi - 1] == p2) midHi--;
+                for (int k = midLo; k < midHi; k++) {
+                    int v = a[k];
+                    if (v == p1) {
+                        swap(a, k, midLo++);
+                    } else if (v == p2) {
+                        while (a[midHi - 1] == p2 && k < midHi - 1) midHi--;
+                        swap(a, k, --midHi);
+                        if (a[k] == p1) swap(a, k, midLo++);
+                    }
+                }
+            }
+
+            // Recursión sobre las dos partes menores, iteración sobre la mayor
+            int s1 = lt - lo, s2 = midHi - midLo, s3 = hi - gt - 1;
+            if (s1 >= s2 && s1 >= s3) {
+                dualPivotSort(a, midLo, midHi, depth);
+                dualPivotSort(a, gt + 1, hi, depth);
+                hi = lt;
+            } else if (s2 >= s3) {
+                dualPivotSort(a, lo, lt, depth);
+                dualPivotSort(a, gt + 1, hi, depth);
+                lo = midLo;
+                hi = midHi;
+            } else {
+                dualPivotSort(a, lo, lt, depth);
+                dualPivotSort(a, midLo, midHi, depth);
+                lo = gt + 1;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Introsort con partición por bloques; offsets guarda los dos buffers de
+    // desplazamientos ([0, BLOCK) izquierda, [BLOCK, 2·BLOCK) derecha)
+    static void blockSort(int[] a, int lo, int hi, int depth, int[] offsets) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int p = blockPartition(a, lo, hi, offsets);
+            if (p - lo < hi - p) {
+                blockSort(a, lo, p, depth, offsets);
+                lo = p + 1;
+            } else {
+                blockSort(a, p + 1, hi, depth, offsets);
+                hi = p;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Partición de BlockQuicksort. Se recorre un bloque por la izquierda y otro
+    // por la derecha anotando, sin saltos, qué posiciones están mal ubicadas
+    // (>= pivote a la izquierda, <= pivote a la derecha); luego se intercambian
+    // en lote tantas parejas como haya. El resto (menos de dos bloques más los
+    // bloques a medias) se reparte al final con una pasada de Lomuto.
+    static int blockPartition(int[] a, int lo, int hi, int[] offsets) {
+        swap(a, lo, selectPivot(a, lo, hi));
+        int pivot = a[lo];
+        int l = lo + 1, r = hi - 1;
+        int numL = 0, numR = 0, startL = 0, startR = BLOCK;
+
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < BLOCK; i++) {
+                    offsets[numL] = i;
+                    numL += a[l + i] >= pivot ? 1 : 0;
+                }
+            }
+            if (numR == 0) {
+                startR = BLOCK;
+                for (int i = 0; i < BLOCK; i++) {
+                    offsets[BLOCK + numR] = i;
+                    numR += a[r - i] <= pivot ? 1 : 0;
+                }
+            }
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                swap(a, l + offsets[startL + k], r - offsets[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        // [lo + 1, l) <= pivote y (r, hi) >= pivote; falta repartir [l, r]
+        int m = l;
+        for (int i = l; i <= r; i++) {
+            int v = a[i];
+            if (v < pivot) {
+                a[i] = a[m];
+                a[m++] = v;
+            }
+        }
+        swap(a, lo, m - 1);
+        return m - 1;
+    }
+
+    // Red de ordenamiento óptima de cinco elementos (nueve comparaciones)
+    static void sortFive(int[] a, int e1, int e2, int e3, int e4, int e5) {
+        compareSwap(a, e1, e2);
+        compareSwap(a, e4, e5);
+        compareSwap(a, e3, e5);
+        compareSwap(a, e3, e4);
+        compareSwap(a, e1, e4);
+        compareSwap(a, e1, e3);
+        compareSwap(a, e2, e5);
+        compareSwap(a, e2, e4);
+        compareSwap(a, e2, e3);
+    }
+
+    static void compareSwap(int[] a, int i, int j) {
+        if (a[j] < a[i]) swap(a, i, j);
+    }
+
+    static int selectPivot(int[] a, int lo, int hi) {
+        return selectPivot(a, lo, hi, null);
+    }
+
+    static int selectPivot(int[] a, int lo, int hi, SortTrace trace) {
+        int n = hi - lo, mid = lo + (n >>> 1), last = hi - 1;
+        if (n > NINTHER_THRESHOLD) {
+            int s = n >>> 3;
+            int m1 = median3(a, lo, lo + s, lo + 2 * s, trace);
+            int m2 = median3(a, mid - s, mid, mid + s, trace);
+            int m3 = median3(a, last - 2 * s, last - s, last, trace);
+            return median3(a, m1, m2, m3, trace);
+        }
+        return median3(a, lo, mid, last, trace);
+    }
+
+    static int median3(int[] a, int i, int j, int k, SortTrace trace) {
+        return less(a, i, j, trace)
+                ? (less(a, j, k, trace) ? j : less(a, i, k, trace) ? k : i)
+                : (less(a, k, j, trace) ? j : less(a, k, i, trace) ? k : i);
+    }
+
+    // a[i] < a[j], avisando la comparación si hay receptor
+    private static boolean less(int[] a, int i, int j, SortTrace trace) {
+        if (trace != null) trace.compare(i, j);
+        return a[i] < a[j];
+    }
+
+    // a[i] < v y a[i] > v, con v el pivote en mano tomado de la posición at
+    private static boolean below(int[] a, int i, int v, int at, SortTrace trace) {
+        if (trace != null) trace.compare(i, at);
+        return a[i] < v;
+    }
+
+    private static boolean above(int[] a, int i, int v, int at, SortTrace trace) {
+        if (trace != null) trace.compare(i, at);
+        return a[i] > v;
+    }
+
+    static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    static void swap(int[] a, int i, int j, SortTrace trace) {
+        swap(a, i, j);
+        if (trace != null) trace.swap(i, j);
+    }
+
+    // --------------------------------------------------------------- long[]
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        introSort(a, from, to, depthLimit(to - from));
+    }
+
+    public static void sort(long[] a, Partitioning partitioning) {
+        sort(a, 0, a.length, partitioning);
+    }
+
+    public static void sort(long[] a, int from, int to, Partitioning partitioning) {
+        int depth = depthLimit(to - from);
+        switch (partitioning) {
+            case THREE_WAY:
+                threeWaySort(a, from, to, depth);
+                break;
+            case DUAL_PIVOT:
+                dualPivotSort(a, from, to, depth);
+                break;
+            case BLOCK:
+                blockSort(a, from, to, depth, new int[2 * BLOCK]);
+                break;
+            default:
+                introSort(a, from, to, depth);
+                break;
+        }
+    }
+
+    public static void parallelSort(long[] a) {
+        parallelSort(a, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+    }
+
+    // pool permite compartir el ejecutor de la aplicación; threshold es el
+    // tamaño por debajo del cual una subpartición se ordena secuencialmente
+    public static void parallelSort(long[] a, ForkJoinPool pool, int threshold) {
+        int n = a.length;
+        int limit = Math.max(threshold, INSERTION_CUTOFF + 1);
+        if (n <= limit || pool.getParallelism() < 2) {
+            blockSort(a, 0, n, depthLimit(n), new int[2 * BLOCK]);
+            return;
+        }
+        pool.invoke(new LongQuickTask(a, 0, n, depthLimit(n), limit));
+    }
+
+    static final class LongQuickTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final long[] a;
+        final int lo, hi, depth, threshold;
+
+        LongQuickTask(long[] a, int lo, int hi, int depth, int threshold) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                blockSort(a, lo, hi, depth, new int[2 * BLOCK]);
+                return;
+            }
+            if (depth == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int p = partition(a, lo, hi);
+            invokeAll(new LongQuickTask(a, lo, p, depth - 1, threshold),
+                      new LongQuickTask(a, p + 1, hi, depth - 1, threshold));
+        }
+    }
+
+    static void introSort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int p = partition(a, lo, hi);
+            if (p - lo < hi - p) {
+                introSort(a, lo, p, depth);
+                lo = p + 1;
+            } else {
+                introSort(a, p + 1, hi, depth);
+                hi = p;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Partición de Hoare con el pivote en a[lo]; se detiene en los iguales
+    // por ambos lados para repartir bien las claves repetidas. Devuelve la
+    // posición final del pivote.
+    static int partition(long[] a, int lo, int hi) {
+        swap(a, lo, selectPivot(a, lo, hi));
+        long pivot = a[lo];
+        int i = lo, j = hi;
+        while (true) {
+            while (a[++i] < pivot) {
+                if (i == hi - 1) break;
+            }
+            while (pivot < a[--j]) {
+                // a[lo] == pivot detiene el recorrido
+            }
+            if (i >= j) break;
+            swap(a, i, j);
+        }
+        swap(a, lo, j);
+        return j;
+    }
+
+    // Dijkstra: [lo, lt) < pivote, [lt, gt) == pivote, [gt, hi) > pivote.
+    // Con pocas claves distintas cada valor se fija en una sola pasada.
+    static void threeWaySort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            long pivot = a[selectPivot(a, lo, hi)];
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                long v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[--gt];
+                    a[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - lo < hi - gt) {
+                threeWaySort(a, lo, lt, depth);
+                lo = gt;
+            } else {
+                threeWaySort(a, gt, hi, depth);
+                hi = lt;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Yaroslavskiy: pivotes p1 <= p2 tomados de cinco muestras;
+    // [lo, lt) < p1, [lt, gt] entre ambos, (gt, hi) > p2
+    static void dualPivotSort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int n = hi - lo, last = hi - 1;
+            int seventh = (n >> 3) + (n >> 6) + 1;
+            int e3 = lo + (n >>> 1);
+            int e2 = e3 - seventh, e1 = e2 - seventh;
+            int e4 = e3 + seventh, e5 = e4 + seventh;
+            sortFive(a, e1, e2, e3, e4, e5);
+            swap(a, lo, e2);
+            swap(a, last, e4);
+            long p1 = a[lo], p2 = a[last];
+
+            int lt = lo + 1, gt = last - 1;
+            for (int k = lt; k <= gt; k++) {
+                long v = a[k];
+                if (v < p1) {
+                    swap(a, k, lt++);
+                } else if (v > p2) {
+                    while (a[gt] > p2 && k < gt) gt--;
+                    swap(a, k, gt--);
+                    if (a[k] < p1) swap(a, k, lt++);
+                }
+            }
+            swap(a, lo, --lt);
+            swap(a, last, ++gt);
+
+            // Parte central [midLo, midHi); si p1 == p2 ya está toda en su sitio
+            int midLo = lt + 1, midHi = gt;
+            if (p1 == p2) {
+                midHi = midLo;
+            } else if (midHi - midLo > n >>> 1) {
+                // Parte central grande: apartar los iguales a los pivotes
+                while (midLo < midHi && a[midLo] == p1) midLo++;
+                while (midLo < midHi && a[midHi - 1] == p2) midHi--;
+                for (int k = midLo; k < midHi; k++) {
+                    long v = a[k];
+                    if (v == p1) {
+                        swap(a, k, midLo++);
+                    } else if (v == p2) {
+                        while (a[midHi - 1] == p2 && k < midHi - 1) midHi--;
+                        swap(a, k, --midHi);
+                        if (a[k] == p1) swap(a, k, midLo++);
+                    }
+                }
+            }
+
+            // Recursión sobre las dos partes menores, iteración sobre la mayor
+            int s1 = lt - lo, s2 = midHi - midLo, s3 = hi - gt - 1;
+            if (s1 >= s2 && s1 >= s3) {
+                dualPivotSort(a, midLo, midHi, depth);
+                dualPivotSort(a, gt + 1, hi, depth);
+                hi = lt;
+            } else if (s2 >= s3) {
+                dualPivotSort(a, lo, lt, depth);
+                dualPivotSort(a, gt + 1, hi, depth);
+                lo = midLo;
+                hi = midHi;
+            } else {
+                dualPivotSort(a, lo, lt, depth);
+                dualPivotSort(a, midLo, midHi, depth);
+                lo = gt + 1;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Introsort con partición por bloques; offsets guarda los dos buffers de
+    // desplazamientos ([0, BLOCK) izquierda, [BLOCK, 2·BLOCK) derecha)
+    static void blockSort(long[] a, int lo, int hi, int depth, int[] offsets) {
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                HeapSortEngine.sort(a, lo, hi);
+                return;
+            }
+            int p = blockPartition(a, lo, hi, offsets);
+            if (p - lo < hi - p) {
+                blockSort(a, lo, p, depth, offsets);
+                lo = p + 1;
+            } else {
+                blockSort(a, p + 1, hi, depth, offsets);
+                hi = p;
+            }
+        }
+        InsertionSortEngine.sort(a, lo, hi);
+    }
+
+    // Partición de BlockQuicksort. Se recorre un bloque por la izquierda y otro
+    // por la derecha anotando, sin saltos, qué posiciones están mal ubicadas
+    // (>= pivote a la izquierda, <= pivote a la derecha); luego se intercambian
+    // en lote tantas parejas como haya. El resto (menos de dos bloques más los
+    // bloques a medias) se reparte al final con una pasada de Lomuto.
+    static int blockPartition(long[] a, int lo, int hi, int[] offsets) {
+        swap(a, lo, selectPivot(a, lo, hi));
+        long pivot = a[lo];
+        int l = lo + 1, r = hi - 1;
+        int numL = 0, numR = 0, startL = 0, startR = BLOCK;
+
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < BLOCK; i++) {
+                    offsets[numL] = i;
+                    numL += a[l + i] >= pivot ? 1 : 0;
+                }
+            }
+            if (numR == 0) {
+                startR = BLOCK;
+                for (int i = 0; i < BLOCK; i++) {
+                    offsets[BLOCK + numR] = i;
+                    numR += a[r - i] <= pivot ? 1 : 0;
+                }
+            }
+            int num = Math.min(numL, numR);
+            for (int k = 0; k < num; k++) {
+                swap(a, l + offsets[startL + k], r - offsets[startR + k]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+
+        // [lo + 1, l) <= pivote y (r, hi) >= pivote; falta repartir [l, r]
+        int m = l;
+        for (int i = l; i <= r; i++) {
+            long v = a[i];
+            if (v < pivot) {
+                a[i] = a[m];
+                a[m++] = v;
+            }
+        }
+        swap(a, lo, m - 1);
+        return m - 1;
+    }
+
+    // Red de ordenamiento óptima de cinco elementos (nueve comparaciones)
+    static void sortFive(long[] a, int e1, int e2, int e3, int e4, int e5) {
+        compareSwap(a, e1, e2);
+        compareSwap(a, e4, e5);
+        compareSwap(a, e3, e5);
+        compareSwap(a, e3, e4);
+        compareSwap(a, e1, e4);
+        compareSwap(a, e1, e3);
+        compareSwap(a, e2, e5);
+        compareSwap(a, e2, e4);
+        compareSwap(a, e2, e3);
+    }
+
+    static void compareSwap(long[] a, int i, int j) {
+        if (a[j] < a[i]) swap(a, i, j);
+    }
+
+    static int selectPivot(long[] a, int lo, int hi) {
+        int n = hi - lo, mid = lo + (n >>> 1), last = hi - 1;
+        if (n > NINTHER_THRESHOLD) {
+            int s = n >>> 3;
+            int m1 = median3(a, lo, lo + s, lo + 2 * s);
+            int m2 = median3(a, mid - s, mid, mid + s);
+            int m3 = median3(a, last - 2 * s, last - s, last);
+            return median3(a, m1, m2, m3);
+        }
+        return median3(a, lo, mid, last);
+    }
+
+    static int median3(long[] a, int i, int j, int k) {
+        return a[i] < a[j]
+                ? (a[j] < a[k] ? j : a[i] < a[k] ? k : i)
+                : (a[k] < a[j] ? j : a[k] < a[i] ? k : i);
+    }
+
+    static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -0,0 +1,366 @@
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+// Motor de ordenamiento estable para registros con clave int o long.
+// Las claves viajan en int[] keys (o long[] keys) y la carga útil en un
+// arreglo paralelo (int[] o long[], típicamente índices) o en un arreglo de
+// objetos con un extractor de clave. Si el rango de claves int es pequeño
+// basta una pasada de counting sort estable; si no, LSD radix sort de dígitos
+// de 8 bits sobre clave - min, saltando las pasadas en las que todas las
+// claves comparten el dígito y alternando entre el arreglo original y un buffer.
+// double[] y float[] se ordenan como claves enteras que conservan el orden de
+// Double.compare y Float.compare (ver doubleKey).
+public final class RadixSortEngine {
+    static final int DIGIT_BITS = 8;
+    static final int RADIX = 1 << DIGIT_BITS;
+    static final int MASK = RADIX - 1;
+    // Rangos hasta este tamaño se resuelven con una sola pasada de conteo
+    static final int COUNTING_RANGE = 1 << 16;
+
+    private RadixSortEngine() {
+    }
+
+    // ----------------------------------------------------------- solo claves
+
+    public static void sort(int[] a) {
+        int n = a.length;
+        if (n < 2) return;
+        long mm = CountingSortEngine.minMax(a, 0, n);
+        int min = CountingSortEngine.min(mm);
+        if (CountingSortEngine.range(mm) <= COUNTING_RANGE) {
+            CountingSortEngine.sort(a);
+            return;
+        }
+        int[] buf = new int[n];
+
+        int[] counts = histograms(a, n, min);
+        int[] src = a, dst = buf;
+        for (int shift = 0, d = 0; shift < 32; shift += DIGIT_BITS, d += RADIX) {
+            if (!digitPass(counts, d, n)) continue;
+            for (int i = 0; i < n; i++) {
+                int k = src[i];
+                dst[counts[d + (((k - min) >>> shift) & MASK)]++] = k;
+            }
+            int[] t = src; src = dst; dst = t;
+        }
+        if (src != a) System.arraycopy(src, 0, a, 0, n);
+    }
+
+    // ------------------------------------------------------ solo claves long
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        int n = to - from;
+        if (n < 2) return;
+        long[] keys = from == 0 && to == a.length ? a : Arrays.copyOfRange(a, from, to);
+        sortKeys(keys);
+        if (keys != a) System.arraycopy(keys, 0, a, from, n);
+    }
+
+    // Ocho dígitos de 8 bits sobre clave - min, igual que sort(long[], int[])
+    static void sortKeys(long[] a) {
+        int n = a.length;
+        long min = a[0];
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, a[i]);
+        }
+        int[] counts = histograms(a, n, min);
+        long[] src = a, dst = null;
+        for (int shift = 0, d = 0; shift < 64; shift += DIGIT_BITS, d += RADIX) {
+            if (!digitPass(counts, d, n)) continue;
+            if (dst == null) dst = new long[n];
+            for (int i = 0; i < n; i++) {
+                long k = src[i];
+                dst[counts[d + (int) (((k - min) >>> shift) & MASK)]++] = k;
+            }
+            long[] t = src; src = dst; dst = t;
+        }
+        if (src != a) System.arraycopy(src, 0, a, 0, n);
+    }
+
+    // ------------------------------------------------------ double[] y float[]
+
+    // Orden de Double.compare: -0.0 antes que 0.0 y NaN al final. Los NaN se
+    // normalizan (doubleToLongBits), así que salen como Double.NaN.
+    public static void sort(double[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(double[] a, int from, int to) {
+        int n = to - from;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = doubleKey(a[from + i]);
+        }
+        sortKeys(keys);
+        for (int i = 0; i < n; i++) {
+            a[from + i] = fromDoubleKey(keys[i]);
+        }
+    }
+
+    public static void sort(float[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(float[] a, int from, int to) {
+        int n = to - from;
+        if (n < 2) return;
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = floatKey(a[from + i]);
+        }
+        sort(keys);
+        for (int i = 0; i < n; i++) {
+            a[from + i] = fromFloatKey(keys[i]);
+        }
+    }
+
+    // Bits IEEE-754 como long con signo que se ordena igual que Double.compare:
+    // los positivos quedan igual y en los negativos se invierten todos los bits
+    // salvo el de signo. La transformación es su propia inversa.
+    static long doubleKey(double v) {
+        long bits = Double.doubleToLongBits(v);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    static double fromDoubleKey(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    static int floatKey(float v) {
+        int bits = Float.floatToIntBits(v);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    static float fromFloatKey(int key) {
+        return Float.intBitsToFloat(key ^ ((key >> 31) & Integer.MAX_VALUE));
+    }
+
+    // --------------------------------------------------- claves + int[] carga
+
+    public static void sort(int[] keys, int[] values) {
+        sort(keys, values, null, null);
+    }
+
+    // keyBuf y valueBuf pueden ser null; si no, deben tener al menos keys.length posiciones
+    public static void sort(int[] keys, int[] values, int[] keyBuf, int[] valueBuf) {
+        int n = keys.length;
+        checkLength(n, values.length);
+        if (n < 2) return;
+        if (keyBuf == null) keyBuf = new int[n];
+        if (valueBuf == null) valueBuf = new int[n];
+
+        long mm = CountingSortEngine.minMax(keys, 0, n);
+        int min = CountingSortEngine.min(mm);
+        long range = CountingSortEngine.range(mm);
+        if (range == 1) return;
+
+        if (range <= COUNTING_RANGE) {
+            int[] counts = new int[(int) range];
+            for (int i = 0; i < n; i++) {
+                counts[keys[i] - min]++;
+            }
+            prefix(counts, 0, (int) range);
+            System.arraycopy(keys, 0, keyBuf, 0, n);
+            System.arraycopy(values, 0, valueBuf, 0, n);
+            for (int i = 0; i < n; i++) {
+                int k = keyBuf[i];
+                int p = counts[k - min]++;
+                keys[p] = k;
+                values[p] = valueBuf[i];
+            }
+            return;
+        }
+
+        int[] counts = histograms(keys, n, min);
+        int[] srcK = keys, dstK = keyBuf;
+        int[] srcV = values, dstV = valueBuf;
+        for (int shift = 0, d = 0; shift < 32; shift += DIGIT_BITS, d += RADIX) {
+            if (!digitPass(counts, d, n)) continue;
+            for (int i = 0; i < n; i++) {
+                int k = srcK[i];
+                int p = counts[d + (((k - min) >>> shift) & MASK)]++;
+                dstK[p] = k;
+                dstV[p] = srcV[i];
+            }
+            int[] t = srcK; srcK = dstK; dstK = t;
+            t = srcV; srcV = dstV; dstV = t;
+        }
+        if (srcK != keys) {
+            System.arraycopy(srcK, 0, keys, 0, n);
+            System.arraycopy(srcV, 0, values, 0, n);
+        }
+    }
+
+    // -------------------------------------------------- claves + long[] carga
+
+    public static void sort(int[] keys, long[] values) {
+        sort(keys, values, null, null);
+    }
+
+    public static void sort(int[] keys, long[] values, int[] keyBuf, long[] valueBuf) {
+        int n = keys.length;
+        checkLength(n, values.length);
+        if (n < 2) return;
+        if (keyBuf == null) keyBuf = new int[n];
+        if (valueBuf == null) valueBuf = new long[n];
+
+        long mm = CountingSortEngine.minMax(keys, 0, n);
+        int min = CountingSortEngine.min(mm);
+        long range = CountingSortEngine.range(mm);
+        if (range == 1) return;
+
+        if (range <= COUNTING_RANGE) {
+            int[] counts = new int[(int) range];
+            for (int i = 0; i < n; i++) {
+                counts[keys[i] - min]++;
+            }
+            prefix(counts, 0, (int) range);
+            System.arraycopy(keys, 0, keyBuf, 0, n);
+            System.arraycopy(values, 0, valueBuf, 0, n);
+            for (int i = 0; i < n; i++) {
+                int k = keyBuf[i];
+                int p = counts[k - min]++;
+                keys[p] = k;
+                values[p] = valueBuf[i];
+            }
+            return;
+        }
+
+        int[] counts = histograms(keys, n, min);
+        int[] srcK = keys, dstK = keyBuf;
+        long[] srcV = values, dstV = valueBuf;
+        for (int shift = 0, d = 0; shift < 32; shift += DIGIT_BITS, d += RADIX) {
+            if (!digitPass(counts, d, n)) continue;
+            for (int i = 0; i < n; i++) {
+                int k = srcK[i];
+                int p = counts[d + (((k - min) >>> shift) & MASK)]++;
+                dstK[p] = k;
+                dstV[p] = srcV[i];
+            }
+            int[] t = srcK; srcK = dstK; dstK = t;
+            long[] tv = srcV; srcV = dstV; dstV = tv;
+        }
+        if (srcK != keys) {
+            System.arraycopy(srcK, 0, keys, 0, n);
+            System.arraycopy(srcV, 0, values, 0, n);
+        }
+    }
+
+    // -------------------------------------------- claves long + int[] carga
+
+    public static void sort(long[] keys, int[] values) {
+        sort(keys, values, null, null);
+    }
+
+    // Ocho dígitos de 8 bits sobre clave - min; la resta se interpreta sin
+    // signo, así que vale aunque max - min desborde un long
+    public static void sort(long[] keys, int[] values, long[] keyBuf, int[] valueBuf) {
+        int n = keys.length;
+        checkLength(n, values.length);
+        if (n < 2) return;
+
+        long min = keys[0];
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, keys[i]);
+        }
+        int[] counts = histograms(keys, n, min);
+        if (keyBuf == null) keyBuf = new long[n];
+        if (valueBuf == null) valueBuf = new int[n];
+        long[] srcK = keys, dstK = keyBuf;
+        int[] srcV = values, dstV = valueBuf;
+        for (int shift = 0, d = 0; shift < 64; shift += DIGIT_BITS, d += RADIX) {
+            if (!digitPass(counts, d, n)) continue;
+            for (int i = 0; i < n; i++) {
+                long k = srcK[i];
+                int p = counts[d + (int) (((k - min) >>> shift) & MASK)]++;
+                dstK[p] = k;
+                dstV[p] = srcV[i];
+            }
+            long[] t = srcK; srcK = dstK; dstK = t;
+            int[] tv = srcV; srcV = dstV; dstV = tv;
+        }
+        if (srcK != keys) {
+            System.arraycopy(srcK, 0, keys, 0, n);
+            System.arraycopy(srcV, 0, values, 0, n);
+        }
+    }
+
+    // --------------------------------------------------------------- objetos
+
+    // Extrae cada clave una sola vez, ordena (clave, índice) y permuta los objetos
+    public static <T> void sort(T[] items, ToIntFunction<? super T> key) {
+        int n = items.length;
+        if (n < 2) return;
+        int[] keys = new int[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = key.applyAsInt(items[i]);
+            order[i] = i;
+        }
+        sort(keys, order);
+        T[] copy = items.clone();
+        for (int i = 0; i < n; i++) {
+            items[i] = copy[order[i]];
+        }
+    }
+
+    // ------------------------------------------------------------- auxiliares
+
+    // Histogramas de los cuatro dígitos de (clave - min) en un solo recorrido
+    static int[] histograms(int[] keys, int n, int min) {
+        int[] counts = new int[4 * RADIX];
+        for (int i = 0; i < n; i++) {
+            int k = keys[i] - min;
+            counts[k & MASK]++;
+            counts[RADIX + ((k >>> 8) & MASK)]++;
+            counts[2 * RADIX + ((k >>> 16) & MASK)]++;
+            counts[3 * RADIX + (k >>> 24)]++;
+        }
+        return counts;
+    }
+
+    // Histogramas de los ocho dígitos de (clave - min) en un solo recorrido
+    static int[] histograms(long[] keys, int n, long min) {
+        int[] counts = new int[8 * RADIX];
+        for (int i = 0; i < n; i++) {
+            long k = keys[i] - min;
+            for (int d = 0; d < 8 * RADIX; d += RADIX) {
+                counts[d + (int) (k & MASK)]++;
+                k >>>= DIGIT_BITS;
+            }
+        }
+        return counts;
+    }
+
+    // Convierte counts[from, from + len) en posiciones iniciales
+    static void prefix(int[] counts, int from, int len) {
+        int sum = 0;
+        for (int i = from, end = from + len; i < end; i++) {
+            int c = counts[i];
+            counts[i] = sum;
+            sum += c;
+        }
+    }
+
+    // Prepara la pasada del dígito cuyo histograma empieza en d. Devuelve
+    // false (pasada innecesaria) si las n claves comparten ese dígito.
+    static boolean digitPass(int[] counts, int d, int n) {
+        for (int i = d, end = d + RADIX; i < end; i++) {
+            if (counts[i] == n) return false;
+        }
+        prefix(counts, d, RADIX);
+        return true;
+    }
+
+    private static void checkLength(int keys, int values) {
+        if (keys != values) {
+            throw new IllegalArgumentException("keys y values deben tener la misma longitud: " +
+                    keys + " != " + values);
+        }
+    }
+}
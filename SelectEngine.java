@@ -0,0 +1,260 @@
+import java.util.Arrays;
+
+// Selección del k-ésimo menor y de percentiles sin ordenar todo el arreglo.
+// Introselect: quickselect con el pivote de QuickSortEngine (mediana de tres
+// o ninther) y partición de tres vías, así los valores repetidos no degradan
+// el recorrido. Si dos particiones seguidas no reducen el tramo a la mitad se
+// pasa a mediana de medianas, que garantiza O(n) en el peor caso.
+// selectAll y quantiles resuelven varios rangos (p50, p99, p999...) con una
+// sola partición recursiva: cada partición reparte los rangos pendientes
+// entre sus dos lados y descarta los lados sin ninguno.
+public final class SelectEngine {
+    // Tramos de este tamaño o menos se ordenan por inserción
+    static final int INSERTION_CUTOFF = 16;
+
+    private SelectEngine() {
+    }
+
+    // Rango (desde 0) del percentil q en n valores, por rango más cercano
+    static int rankOf(double q, int n) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("El percentil debe estar en [0, 1]: " + q);
+        }
+        if (n == 0) {
+            throw new IllegalArgumentException("No hay valores");
+        }
+        return Math.max(0, Math.min(n - 1, (int) Math.ceil(q * n) - 1));
+    }
+
+    // Primera posición de ks[from, to) (ordenado) con valor >= v
+    static int firstAtLeast(int[] ks, int from, int to, int v) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (ks[mid] < v) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    // ---------------------------------------------------------------- int[]
+
+    // k-ésimo menor (desde 0) de a; deja a[k] en su posición final, con
+    // a[0, k) <= a[k] <= a(k, n)
+    public static int select(int[] a, int k) {
+        return select(a, 0, a.length, k);
+    }
+
+    // k es absoluto, dentro de [from, to)
+    public static int select(int[] a, int from, int to, int k) {
+        if (k < from || k >= to) {
+            throw new IllegalArgumentException("k fuera de rango: " + k +
+                    " no está en [" + from + ", " + to + ")");
+        }
+        int[] ks = {k};
+        selectRange(a, from, to, ks, 0, 1, to - from, 0);
+        return a[k];
+    }
+
+    // Varios rangos en una sola partición recursiva; el resultado sigue el
+    // orden de ks, que puede venir desordenado o repetido
+    public static int[] selectAll(int[] a, int... ks) {
+        int n = a.length;
+        int[] sorted = ks.clone();
+        Arrays.sort(sorted);
+        for (int k : sorted) {
+            if (k < 0 || k >= n) {
+                throw new IllegalArgumentException("k fuera de rango: " + k + " no está en [0, " + n + ")");
+            }
+        }
+        selectRange(a, 0, n, sorted, 0, sorted.length, n, 0);
+        int[] out = new int[ks.length];
+        for (int i = 0; i < ks.length; i++) {
+            out[i] = a[ks[i]];
+        }
+        return out;
+    }
+
+    // Percentil por rango más cercano: q = 0.99 es p99, q = 0.999 es p999
+    public static int quantile(int[] a, double q) {
+        return select(a, rankOf(q, a.length));
+    }
+
+    public static int[] quantiles(int[] a, double... qs) {
+        int[] ks = new int[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            ks[i] = rankOf(qs[i], a.length);
+        }
+        return selectAll(a, ks);
+    }
+
+    // Deja en su sitio los rangos ks[kLo, kHi) (ordenados) de a[lo, hi).
+    // limit y steps vigilan el progreso: cada dos particiones el tramo debe
+    // quedar en la mitad de limit; si no, limit pasa a -1 y desde ahí se usa
+    // mediana de medianas.
+    static void selectRange(int[] a, int lo, int hi, int[] ks, int kLo, int kHi, int limit, int steps) {
+        while (kLo < kHi) {
+            if (hi - lo <= INSERTION_CUTOFF) {
+                InsertionSortEngine.sort(a, lo, hi);
+                return;
+            }
+            if (limit >= 0 && steps == 2) {
+                limit = hi - lo > limit / 2 ? -1 : hi - lo;
+                steps = 0;
+            }
+            int pivot = a[limit < 0 ? medianOfMedians(a, lo, hi) : QuickSortEngine.selectPivot(a, lo, hi)];
+            steps++;
+
+            // Tres vías (Dijkstra): [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                int v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[--gt];
+                    a[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            int kMid = firstAtLeast(ks, kLo, kHi, lt);
+            int kRight = firstAtLeast(ks, kMid, kHi, gt);
+            if (kMid - kLo < kHi - kRight) {
+                selectRange(a, lo, lt, ks, kLo, kMid, limit, steps);
+                lo = gt;
+                kLo = kRight;
+            } else {
+                selectRange(a, gt, hi, ks, kRight, kHi, limit, steps);
+                hi = lt;
+                kHi = kMid;
+            }
+        }
+    }
+
+    // Índice de un pivote con al menos 3/10 del tramo a cada lado: mediana de
+    // las medianas de grupos de cinco, reunidas al inicio del tramo
+    static int medianOfMedians(int[] a, int lo, int hi) {
+        int m = lo;
+        for (int i = lo; i + 5 <= hi; i += 5) {
+            QuickSortEngine.sortFive(a, i, i + 1, i + 2, i + 3, i + 4);
+            QuickSortEngine.swap(a, m++, i + 2);
+        }
+        int mid = lo + ((m - lo) >>> 1);
+        int[] ks = {mid};
+        selectRange(a, lo, m, ks, 0, 1, -1, 0);
+        return mid;
+    }
+
+    // --------------------------------------------------------------- long[]
+
+    // k-ésimo menor (desde 0) de a; deja a[k] en su posición final, con
+    // a[0, k) <= a[k] <= a(k, n)
+    public static long select(long[] a, int k) {
+        return select(a, 0, a.length, k);
+    }
+
+    // k es absoluto, dentro de [from, to)
+    public static long select(long[] a, int from, int to, int k) {
+        if (k < from || k >= to) {
+            throw new IllegalArgumentException("k fuera de rango: " + k +
+                    " no está en [" + from + ", " + to + ")");
+        }
+        int[] ks = {k};
+        selectRange(a, from, to, ks, 0, 1, to - from, 0);
+        return a[k];
+    }
+
+    // Varios rangos en una sola partición recursiva; el resultado sigue el
+    // orden de ks, que puede venir desordenado o repetido
+    public static long[] selectAll(long[] a, int... ks) {
+        int n = a.length;
+        int[] sorted = ks.clone();
+        Arrays.sort(sorted);
+        for (int k : sorted) {
+            if (k < 0 || k >= n) {
+                throw new IllegalArgumentException("k fuera de rango: " + k + " no está en [0, " + n + ")");
+            }
+        }
+        selectRange(a, 0, n, sorted, 0, sorted.length, n, 0);
+        long[] out = new long[ks.length];
+        for (int i = 0; i < ks.length; i++) {
+            out[i] = a[ks[i]];
+        }
+        return out;
+    }
+
+    // Percentil por rango más cercano: q = 0.99 es p99, q = 0.999 es p999
+    public static long quantile(long[] a, double q) {
+        return select(a, rankOf(q, a.length));
+    }
+
+    public static long[] quantiles(long[] a, double... qs) {
+        int[] ks = new int[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            ks[i] = rankOf(qs[i], a.length);
+        }
+        return selectAll(a, ks);
+    }
+
+    // Deja en su sitio los rangos ks[kLo, kHi) (ordenados) de a[lo, hi).
+    // limit y steps vigilan el progreso: cada dos particiones el tramo debe
+    // quedar en la mitad de limit; si no, limit pasa a -1 y desde ahí se usa
+    // mediana de medianas.
+    static void selectRange(long[] a, int lo, int hi, int[] ks, int kLo, int kHi, int limit, int steps) {
+        while (kLo < kHi) {
+            if (hi - lo <= INSERTION_CUTOFF) {
+                InsertionSortEngine.sort(a, lo, hi);
+                return;
+            }
+            if (limit >= 0 && steps == 2) {
+                limit = hi - lo > limit / 2 ? -1 : hi - lo;
+                steps = 0;
+            }
+            long pivot = a[limit < 0 ? medianOfMedians(a, lo, hi) : QuickSortEngine.selectPivot(a, lo, hi)];
+            steps++;
+
+            // Tres vías (Dijkstra): [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                long v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[--gt];
+                    a[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            int kMid = firstAtLeast(ks, kLo, kHi, lt);
+            int kRight = firstAtLeast(ks, kMid, kHi, gt);
+            if (kMid - kLo < kHi - kRight) {
+                selectRange(a, lo, lt, ks, kLo, kMid, limit, steps);
+                lo = gt;
+                kLo = kRight;
+            } else {
+                selectRange(a, gt, hi, ks, kRight, kHi, limit, steps);
+                hi = lt;
+                kHi = kMid;
+            }
+        }
+    }
+
+    // Índice de un pivote con al menos 3/10 del tramo a cada lado: mediana de
+    // las medianas de grupos de cinco, reunidas al inicio del tramo
+    static int medianOfMedians(long[] a, int lo, int hi) {
+        int m = lo;
+        for (int i = lo; i + 5 <= hi; i += 5) {
+            QuickSortEngine.sortFive(a, i, i + 1, i + 2, i + 3, i + 4);
+            QuickSortEngine.swap(a, m++, i + 2);
+        }
+        int mid = lo + ((m - lo) >>> 1);
+        int[] ks = {mid};
+        selectRange(a, lo, m, ks, 0, 1, -1, 0);
+        return mid;
+    }
+}
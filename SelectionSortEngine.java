@@ -0,0 +1,63 @@
+// Motor de Selection Sort sin dependencias de Swing: para cada posición
+// busca el mínimo del sufijo y lo intercambia a su lugar. Son O(n²)
+// comparaciones en todos los casos pero a lo sumo n - 1 intercambios, así que
+// solo conviene en arreglos muy pequeños o cuando escribir es caro. Para
+// sacar los mínimos de a uno en O(log n) está TournamentTree.
+public final class SelectionSortEngine {
+
+    private SelectionSortEngine() {
+    }
+
+    // ---------------------------------------------------------------- int[]
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length, null);
+    }
+
+    public static void sort(int[] a, int from, int to) {
+        sort(a, from, to, null);
+    }
+
+    // trace puede ser null; si no, recibe cada comparación e intercambio
+    public static void sort(int[] a, int from, int to, SortTrace trace) {
+        for (int i = from; i < to - 1; i++) {
+            int min = i;
+            int m = a[i];
+            for (int j = i + 1; j < to; j++) {
+                if (trace != null) trace.compare(j, min);
+                if (a[j] < m) {
+                    min = j;
+                    m = a[j];
+                }
+            }
+            if (min != i) {
+                a[min] = a[i];
+                a[i] = m;
+                if (trace != null) trace.swap(i, min);
+            }
+        }
+    }
+
+    // --------------------------------------------------------------- long[]
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            int min = i;
+            long m = a[i];
+            for (int j = i + 1; j < to; j++) {
+                if (a[j] < m) {
+                    min = j;
+                    m = a[j];
+                }
+            }
+            if (min != i) {
+                a[min] = a[i];
+                a[i] = m;
+            }
+        }
+    }
+}
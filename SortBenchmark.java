@@ -0,0 +1,931 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+// Banco de pruebas de los motores de ordenamiento (sin interfaz gráfica).
+// Uso: java SortBenchmark [n] [repeticiones] [secciones separadas por comas]
+// La sección "calibrate" no está en la lista por defecto: mide los umbrales de
+// AdaptiveSort en esta máquina y los escribe en adaptive-sort.properties.
+public final class SortBenchmark {
+
+    private SortBenchmark() {
+    }
+
+    interface IntSort {
+        void sort(int[] a);
+    }
+
+    interface LongSort {
+        void sort(long[] a);
+    }
+
+    interface DoubleSort {
+        void sort(double[] a);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int reps = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Set<String> sections = new HashSet<>(Arrays.asList(
+                (args.length > 2 ? args[2] : "bucket,counting,records,shoes,heap,topk,merge,parallel-merge,adaptive,quick,partitioning,block,parallel-quick,insertion,sorted-buffer,select,tournament,adaptive-sort,external,loser-tree,incremental,floating").split(",")));
+
+        if (sections.contains("bucket")) benchmarkBucket(n, reps);
+        if (sections.contains("counting")) benchmarkCounting(n, reps);
+        if (sections.contains("records")) benchmarkRecords(Math.min(n, 5_000_000), reps);
+        if (sections.contains("shoes")) benchmarkShoes(100_000, reps);
+        if (sections.contains("heap")) benchmarkHeap(n, reps);
+        if (sections.contains("topk")) benchmarkTopK(n, 100, reps);
+        if (sections.contains("merge")) benchmarkMerge(n, reps);
+        if (sections.contains("parallel-merge")) benchmarkParallelMerge(n, reps);
+        if (sections.contains("adaptive")) benchmarkAdaptive(n, reps);
+        if (sections.contains("quick")) benchmarkQuick(n, reps);
+        if (sections.contains("partitioning")) benchmarkPartitioning(n, reps);
+        if (sections.contains("block")) benchmarkBlock(n, reps);
+        if (sections.contains("parallel-quick")) benchmarkParallelQuick(n, reps);
+        if (sections.contains("insertion")) benchmarkInsertion(Math.min(n, 1 << 20), reps);
+        if (sections.contains("sorted-buffer")) benchmarkSortedBuffer(Math.min(n, 1 << 20), 100_000);
+        if (sections.contains("select")) benchmarkSelect(n, reps);
+        if (sections.contains("tournament")) benchmarkTournament(Math.min(n, 1 << 22), reps);
+        if (sections.contains("adaptive-sort")) benchmarkAdaptiveSort(Math.min(n, 1 << 22), reps);
+        if (sections.contains("external")) benchmarkExternal(Math.min(n, 1 << 22), reps);
+        if (sections.contains("loser-tree")) benchmarkLoserTree(n, reps);
+        if (sections.contains("incremental")) benchmarkIncremental(Math.min(n, 1 << 22), 4096, reps);
+        if (sections.contains("floating")) benchmarkFloating(n, reps);
+        if (sections.contains("calibrate")) calibrate(reps);
+    }
+
+    static void benchmarkBucket(int n, int reps) {
+        int[] uniform = new Random(42).ints(n, 0, 1_000_000_000).toArray();
+        System.out.println("n = " + n + ", datos uniformes");
+
+        double base = time("Arrays.sort", Arrays::sort, uniform, reps);
+        double bucket = time("BucketSortEngine.sort", BucketSortEngine::sort, uniform, reps);
+        System.out.printf("Aceleración bucket vs Arrays.sort: %.2fx%n", base / bucket);
+
+        System.out.println("\nModo paralelo (" + ForkJoinPool.commonPool().getParallelism() + " hilos)");
+        double parallelBase = time("Arrays.parallelSort", Arrays::parallelSort, uniform, reps);
+        double parallelBucket = time("BucketSortEngine.parallelSort", BucketSortEngine::parallelSort, uniform, reps);
+        System.out.printf("Aceleración bucket paralelo vs Arrays.parallelSort: %.2fx%n",
+                          parallelBase / parallelBucket);
+    }
+
+    static void benchmarkCounting(int n, int reps) {
+        int[] statusCodes = new Random(7).ints(n, 100, 600).toArray();
+        System.out.println("\nn = " + n + ", rango pequeño (códigos de estado 100-599)");
+        double smallBase = time("Arrays.sort", Arrays::sort, statusCodes, reps);
+        double counting = time("CountingSortEngine.sort", CountingSortEngine::sort, statusCodes, reps);
+        System.out.printf("Aceleración counting vs Arrays.sort: %.2fx%n", smallBase / counting);
+    }
+
+    // Montículo binario clásico frente a Floyd y montículos de aridad 4 y 8
+    static void benchmarkHeap(int n, int reps) {
+        int[] data = new Random(5).ints(n).toArray();
+        System.out.println("\nn = " + n + ", heap sort");
+        double binary = time("HeapSortEngine.sortBinary", a -> HeapSortEngine.sortBinary(a, 0, a.length), data, reps);
+        time("HeapSortEngine.sortBottomUp", a -> HeapSortEngine.sortBottomUp(a, 0, a.length), data, reps);
+        time("HeapSortEngine.sortDAry(4)", a -> HeapSortEngine.sortDAry(a, 0, a.length, 4), data, reps);
+        double octal = time("HeapSortEngine.sortDAry(8)", a -> HeapSortEngine.sortDAry(a, 0, a.length, 8), data, reps);
+        System.out.printf("Aceleración aridad 8 vs binario: %.2fx%n", binary / octal);
+    }
+
+    // Eventos (marca de tiempo de 32 bits, índice) ordenados de forma estable por marca
+    static void benchmarkRecords(int n, int reps) {
+        int[] timestamps = new Random(11).ints(n).toArray();
+        System.out.println("\nn = " + n + ", registros por marca de tiempo");
+
+        double comparator = Double.MAX_VALUE;
+        double radix = Double.MAX_VALUE;
+        int[] keys = new int[n];
+        int[] order = new int[n];
+        Integer[] boxed = new Integer[n];
+        for (int r = 0; r < reps; r++) {
+            for (int i = 0; i < n; i++) boxed[i] = i;
+            long t0 = System.nanoTime();
+            Arrays.sort(boxed, Comparator.comparingInt(i -> timestamps[i]));
+            comparator = Math.min(comparator, (System.nanoTime() - t0) / 1e6);
+
+            System.arraycopy(timestamps, 0, keys, 0, n);
+            for (int i = 0; i < n; i++) order[i] = i;
+            t0 = System.nanoTime();
+            RadixSortEngine.sort(keys, order);
+            radix = Math.min(radix, (System.nanoTime() - t0) / 1e6);
+            checkSorted("RadixSortEngine.sort", keys);
+        }
+        System.out.printf("%-32s %10.2f ms%n", "Arrays.sort(Integer[], cmp)", comparator);
+        System.out.printf("%-32s %10.2f ms%n", "RadixSortEngine.sort(keys, idx)", radix);
+        System.out.printf("Aceleración radix vs comparador: %.2fx%n", comparator / radix);
+    }
+
+    // Ordenamientos estables: buffer único con alternancia frente a la JDK
+    static void benchmarkMerge(int n, int reps) {
+        int[] data = new Random(17).ints(n).toArray();
+        int[] scratch = new int[n];
+        System.out.println("\nn = " + n + ", merge sort");
+        double base = time("Arrays.sort", Arrays::sort, data, reps);
+        double merge = time("MergeSortEngine.sort", a -> MergeSortEngine.sort(a, 0, a.length, scratch), data, reps);
+        System.out.printf("Relación merge vs Arrays.sort: %.2fx%n", base / merge);
+    }
+
+    // Curva de aceleración del merge sort paralelo con 1 a 64 hilos
+    static void benchmarkParallelMerge(int n, int reps) {
+        int[] data = new Random(19).ints(n).toArray();
+        System.out.println("\nn = " + n + ", merge sort paralelo (" +
+                           Runtime.getRuntime().availableProcessors() + " núcleos disponibles)");
+        double single = time("MergeSortEngine.sort", MergeSortEngine::sort, data, reps);
+        // Arrays.parallelSort siempre usa el pool común
+        double jdk = time("Arrays.parallelSort", Arrays::parallelSort, data, reps);
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                double merge = time("MergeSortEngine.parallelSort [" + threads + "]",
+                                    a -> MergeSortEngine.parallelSort(a, pool, MergeSortEngine.PARALLEL_THRESHOLD),
+                                    data, reps);
+                System.out.printf("  %2d hilos: %.2fx vs secuencial, %.2fx vs Arrays.parallelSort%n",
+                                  threads, single / merge, jdk / merge);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Entradas con orden previo: ordenada, inversa, diente de sierra y k-ordenada
+    static void benchmarkAdaptive(int n, int reps) {
+        Random random = new Random(23);
+        int[] sorted = new int[n];
+        int[] reverse = new int[n];
+        int[] sawtooth = new int[n];
+        int[] kSorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reverse[i] = n - i;
+            sawtooth[i] = i % 10_000;
+            kSorted[i] = i;
+        }
+        // Ventanas pequeñas fuera de orden, como en un registro de solo anexado
+        int k = 16;
+        for (int i = 0; i + k < n; i += k) {
+            int j = i + random.nextInt(k);
+            int t = kSorted[i];
+            kSorted[i] = kSorted[j];
+            kSorted[j] = t;
+        }
+        String[] names = {"ordenada", "inversa", "diente de sierra", "k-ordenada (k=16)"};
+        int[][] inputs = {sorted, reverse, sawtooth, kSorted};
+        for (int d = 0; d < inputs.length; d++) {
+            System.out.println("\nn = " + n + ", " + names[d] + ", " +
+                               AdaptiveMergeSort.countRuns(inputs[d]) + " tramos");
+            double base = time("Arrays.sort", Arrays::sort, inputs[d], reps);
+            time("MergeSortEngine.sort", MergeSortEngine::sort, inputs[d], reps);
+            double adaptive = time("AdaptiveMergeSort.sort", AdaptiveMergeSort::sort, inputs[d], reps);
+            System.out.printf("Relación adaptativo vs Arrays.sort: %.2fx%n", base / adaptive);
+        }
+    }
+
+    // Introsort con entradas que degradan a un quicksort con pivote fijo
+    static void benchmarkQuick(int n, int reps) {
+        int[] random = new Random(29).ints(n).toArray();
+        int[] sorted = new int[n];
+        int[] reverse = new int[n];
+        int[] organPipe = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reverse[i] = n - i;
+            organPipe[i] = Math.min(i, n - i);
+        }
+        String[] names = {"aleatoria", "ordenada", "inversa", "órgano"};
+        int[][] inputs = {random, sorted, reverse, organPipe};
+        for (int d = 0; d < inputs.length; d++) {
+            System.out.println("\nn = " + n + ", quick sort, entrada " + names[d]);
+            double base = time("Arrays.sort", Arrays::sort, inputs[d], reps);
+            double quick = time("QuickSortEngine.sort", QuickSortEngine::sort, inputs[d], reps);
+            System.out.printf("Relación introsort vs Arrays.sort: %.2fx%n", base / quick);
+        }
+    }
+
+    // Estrategias de partición con pocas claves distintas, todas iguales y aleatorias
+    static void benchmarkPartitioning(int n, int reps) {
+        int[] fewUnique = new Random(31).ints(n, 0, 8).toArray();
+        int[] allEqual = new int[n];
+        Arrays.fill(allEqual, 200);
+        int[] random = new Random(37).ints(n).toArray();
+        String[] names = {"pocos distintos (8)", "todos iguales", "aleatoria"};
+        int[][] inputs = {fewUnique, allEqual, random};
+        for (int d = 0; d < inputs.length; d++) {
+            System.out.println("\nn = " + n + ", particiones, entrada " + names[d]);
+            time("Arrays.sort", Arrays::sort, inputs[d], reps);
+            for (QuickSortEngine.Partitioning p : QuickSortEngine.Partitioning.values()) {
+                time("QuickSortEngine " + p, a -> QuickSortEngine.sort(a, p), inputs[d], reps);
+            }
+        }
+    }
+
+    // Partición por bloques frente a Hoare con int[] y long[] aleatorios, de
+    // 1M hasta n elementos
+    static void benchmarkBlock(int n, int reps) {
+        for (int size = Math.min(n, 1_000_000); size <= n; size *= 10) {
+            int[] ints = new Random(41).ints(size).toArray();
+            long[] longs = new Random(43).longs(size).toArray();
+            System.out.println("\nn = " + size + ", partición por bloques, int[] aleatorio");
+            double hoare = time("QuickSortEngine HOARE", a -> QuickSortEngine.sort(a, QuickSortEngine.Partitioning.HOARE),
+                                ints, reps);
+            double block = time("QuickSortEngine BLOCK", a -> QuickSortEngine.sort(a, QuickSortEngine.Partitioning.BLOCK),
+                                ints, reps);
+            System.out.printf("Aceleración bloques vs Hoare: %.2fx%n", hoare / block);
+
+            System.out.println("n = " + size + ", partición por bloques, long[] aleatorio");
+            hoare = timeLong("QuickSortEngine HOARE", a -> QuickSortEngine.sort(a, QuickSortEngine.Partitioning.HOARE),
+                             longs, reps);
+            block = timeLong("QuickSortEngine BLOCK", a -> QuickSortEngine.sort(a, QuickSortEngine.Partitioning.BLOCK),
+                             longs, reps);
+            System.out.printf("Aceleración bloques vs Hoare: %.2fx%n", hoare / block);
+        }
+    }
+
+    // Quicksort paralelo en el mismo arreglo frente a las alternativas con
+    // buffer auxiliar, por número de hilos, y barrido del umbral secuencial
+    static void benchmarkParallelQuick(int n, int reps) {
+        int[] data = new Random(47).ints(n).toArray();
+        System.out.println("\nn = " + n + ", quicksort paralelo (" +
+                           Runtime.getRuntime().availableProcessors() + " núcleos disponibles)");
+        double single = time("QuickSortEngine.sort", QuickSortEngine::sort, data, reps);
+        double jdk = time("Arrays.parallelSort", Arrays::parallelSort, data, reps);
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                double quick = time("QuickSortEngine.parallelSort [" + threads + "]",
+                                    a -> QuickSortEngine.parallelSort(a, pool, QuickSortEngine.PARALLEL_THRESHOLD),
+                                    data, reps);
+                time("MergeSortEngine.parallelSort [" + threads + "]",
+                     a -> MergeSortEngine.parallelSort(a, pool, MergeSortEngine.PARALLEL_THRESHOLD),
+                     data, reps);
+                time("BucketSortEngine.parallelSort [" + threads + "]",
+                     a -> BucketSortEngine.parallelSort(a, pool), data, reps);
+                System.out.printf("  %2d hilos: %.2fx vs secuencial, %.2fx vs Arrays.parallelSort%n",
+                                  threads, single / quick, jdk / quick);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        System.out.println("Umbral secuencial con el pool común:");
+        for (int threshold = 1 << 10; threshold <= 1 << 20; threshold <<= 2) {
+            int t = threshold;
+            time("QuickSortEngine.parallelSort umbral " + t,
+                 a -> QuickSortEngine.parallelSort(a, ForkJoinPool.commonPool(), t), data, reps);
+        }
+    }
+
+    // Tramos pequeños de 8 a 256 elementos con cada variante de inserción, para
+    // elegir los cortes de los motores. Cada tramo toma valores de un intervalo
+    // propio y creciente, así que ordenar todos los tramos ordena el arreglo.
+    static void benchmarkInsertion(int n, int reps) {
+        Random random = new Random(53);
+        for (int m = 8; m <= 256; m *= 2) {
+            int len = m;
+            int[] data = new int[n - n % m];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (i / m) * 4 * m + random.nextInt(4 * m);
+            }
+            System.out.println("\nn = " + data.length + ", tramos de " + m);
+            time("linearSort", a -> sortChunks(a, len, InsertionSortEngine::linearSort), data, reps);
+            time("binarySort", a -> sortChunks(a, len, (b, from, to) -> InsertionSortEngine.binarySort(b, from, to, from)),
+                 data, reps);
+            time("pairSort", a -> sortChunks(a, len, InsertionSortEngine::pairSort), data, reps);
+            time("InsertionSortEngine.sort", a -> sortChunks(a, len, InsertionSortEngine::sort), data, reps);
+            time("Arrays.sort", a -> sortChunks(a, len, Arrays::sort), data, reps);
+        }
+    }
+
+    interface RangeSort {
+        void sort(int[] a, int from, int to);
+    }
+
+    static void sortChunks(int[] a, int len, RangeSort sorter) {
+        for (int from = 0; from < a.length; from += len) {
+            sorter.sort(a, from, from + len);
+        }
+    }
+
+    // Ventana ordenada de los últimos w valores: costo por llegada de volver a
+    // ordenar la ventana frente a mantenerla con SortedBuffer
+    static void benchmarkSortedBuffer(int n, int w) {
+        int[] values = new Random(59).ints(n, 0, 10_000_000).toArray();
+        System.out.println("\nn = " + n + " llegadas, ventana de " + w);
+
+        // Volver a ordenar en cada llegada es tan lento que basta una muestra
+        int sample = Math.min(n - w, 500);
+        int[] window = Arrays.copyOf(values, w);
+        int[] copy = new int[w];
+        long t0 = System.nanoTime();
+        for (int i = w; i < w + sample; i++) {
+            window[i % w] = values[i];
+            System.arraycopy(window, 0, copy, 0, w);
+            Arrays.sort(copy);
+        }
+        double resort = perArrival(t0, sample);
+        printPerArrival("Arrays.sort por llegada", resort);
+
+        SortedBuffer.OfInt buffer = new SortedBuffer.OfInt(w + 1);
+        buffer.insertAll(values, 0, w);
+        t0 = System.nanoTime();
+        for (int i = w; i < n; i++) {
+            buffer.insert(values[i]);
+            buffer.remove(values[i - w]);
+        }
+        double single = perArrival(t0, n - w);
+        printPerArrival("SortedBuffer insert + remove", single);
+        checkWindow("SortedBuffer insert + remove", buffer, values, n - w, n);
+
+        int batch = 1024;
+        buffer = new SortedBuffer.OfInt(w + batch);
+        buffer.insertAll(values, 0, w);
+        t0 = System.nanoTime();
+        int end = w;
+        for (; end + batch <= n; end += batch) {
+            buffer.insertAll(values, end, end + batch);
+            for (int i = end - w; i < end - w + batch; i++) {
+                buffer.remove(values[i]);
+            }
+        }
+        double batched = perArrival(t0, end - w);
+        printPerArrival("SortedBuffer insertAll (" + batch + ")", batched);
+        checkWindow("SortedBuffer insertAll", buffer, values, end - w, end);
+
+        // Marcas de tiempo casi en orden: se anexan y la ventana se recorta por
+        // valor; cada consulta del p99 ordena solo los anexos pendientes y los
+        // fusiona con la ventana
+        Random random = new Random(61);
+        int[] stamps = new int[n];
+        for (int i = 0; i < n; i++) {
+            stamps[i] = 4 * i + (random.nextInt(16) == 0 ? -random.nextInt(400) : 0);
+        }
+        buffer = new SortedBuffer.OfInt(w);
+        long p99 = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            buffer.append(stamps[i]);
+            if ((i & (batch - 1)) == batch - 1) {
+                buffer.removeBelow(stamps[i] - 4 * w);
+                p99 = buffer.get(buffer.size() * 99 / 100);
+            }
+        }
+        double appended = perArrival(t0, n);
+        printPerArrival("SortedBuffer append + p99", appended);
+        System.out.printf("Último p99: %d%n", p99);
+        System.out.printf("Aceleración vs reordenar: %.0fx (insert), %.0fx (lotes), %.0fx (append)%n",
+                          resort / single, resort / batched, resort / appended);
+    }
+
+    static double perArrival(long t0, int arrivals) {
+        return (System.nanoTime() - t0) / 1e3 / arrivals;
+    }
+
+    static void printPerArrival(String name, double micros) {
+        System.out.printf("%-32s %10.3f µs/llegada%n", name, micros);
+    }
+
+    static void checkWindow(String name, SortedBuffer.OfInt buffer, int[] values, int from, int to) {
+        int[] expected = Arrays.copyOfRange(values, from, to);
+        Arrays.sort(expected);
+        if (!Arrays.equals(expected, buffer.toArray())) {
+            throw new IllegalStateException(name + " no mantiene la ventana ordenada");
+        }
+    }
+
+    // p50/p99/p999 de latencias: ordenar todo frente a introselect, con los
+    // tres percentiles por separado o en una sola partición recursiva
+    static void benchmarkSelect(int n, int reps) {
+        long[] latencies = new Random(67).longs(n, 0, 10_000_000).toArray();
+        long[] work = new long[n];
+        double[] qs = {0.5, 0.99, 0.999};
+        double full = Double.MAX_VALUE;
+        double separate = Double.MAX_VALUE;
+        double multi = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            System.arraycopy(latencies, 0, work, 0, n);
+            long t0 = System.nanoTime();
+            Arrays.sort(work);
+            long[] expected = new long[qs.length];
+            for (int i = 0; i < qs.length; i++) {
+                expected[i] = work[SelectEngine.rankOf(qs[i], n)];
+            }
+            full = Math.min(full, (System.nanoTime() - t0) / 1e6);
+
+            System.arraycopy(latencies, 0, work, 0, n);
+            t0 = System.nanoTime();
+            long[] each = new long[qs.length];
+            for (int i = 0; i < qs.length; i++) {
+                each[i] = SelectEngine.quantile(work, qs[i]);
+            }
+            separate = Math.min(separate, (System.nanoTime() - t0) / 1e6);
+
+            System.arraycopy(latencies, 0, work, 0, n);
+            t0 = System.nanoTime();
+            long[] all = SelectEngine.quantiles(work, qs);
+            multi = Math.min(multi, (System.nanoTime() - t0) / 1e6);
+            if (!Arrays.equals(expected, each) || !Arrays.equals(expected, all)) {
+                throw new IllegalStateException("SelectEngine no coincide con Arrays.sort");
+            }
+        }
+        System.out.printf("%nn = %d, p50/p99/p999%n", n);
+        System.out.printf("%-32s %10.2f ms%n", "Arrays.sort + índices", full);
+        System.out.printf("%-32s %10.2f ms%n", "SelectEngine.quantile x3", separate);
+        System.out.printf("%-32s %10.2f ms%n", "SelectEngine.quantiles", multi);
+        System.out.printf("Aceleración selección vs ordenar todo: %.2fx%n", full / multi);
+    }
+
+    // Árbol de torneo: ordenamiento completo y los 1000 menores con el
+    // iterador perezoso, frente a ordenar todo
+    static void benchmarkTournament(int n, int reps) {
+        int[] data = new Random(71).ints(n).toArray();
+        System.out.println("\nn = " + n + ", árbol de torneo");
+        double full = time("Arrays.sort", Arrays::sort, data, reps);
+        time("HeapSortEngine.sort", HeapSortEngine::sort, data, reps);
+        time("TournamentTree.sort", TournamentTree::sort, data, reps);
+
+        int k = 1000;
+        double lazy = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            long t0 = System.nanoTime();
+            int[] first = TournamentTree.smallest(data, k);
+            lazy = Math.min(lazy, (System.nanoTime() - t0) / 1e6);
+            checkSorted("TournamentTree.smallest", first);
+        }
+        System.out.printf("%-32s %10.2f ms%n", "TournamentTree.smallest(" + k + ")", lazy);
+        System.out.printf("Aceleración primeros %d vs ordenar todo: %.2fx%n", k, full / lazy);
+    }
+
+    // AdaptiveSort frente a Arrays.sort y a la mejor elección fija en cada
+    // distribución de SortSuite, mostrando qué motor eligió
+    static void benchmarkAdaptiveSort(int n, int reps) {
+        System.out.println("\nn = " + n + ", AdaptiveSort " + AdaptiveSort.thresholds());
+        for (String dist : SortSuite.DISTRIBUTIONS) {
+            int[] data = SortSuite.generate(dist, n, 73);
+            System.out.println(dist + ": elige " + AdaptiveSort.choose(data));
+            double base = time("Arrays.sort", Arrays::sort, data, reps);
+            double adaptive = time("AdaptiveSort.sort", AdaptiveSort::sort, data, reps);
+            System.out.printf("Aceleración vs Arrays.sort: %.2fx%n", base / adaptive);
+        }
+    }
+
+    // Registros de 16 bytes (clave long + carga) en disco, con un presupuesto
+    // que obliga a varios tramos y a más de una pasada de fusión
+    static void benchmarkExternal(int n, int reps) throws IOException {
+        int recordSize = 16;
+        long budget = Math.max(1 << 20, (long) n * recordSize / 16);
+        Path input = Files.createTempFile("external-in", ".bin");
+        Path output = Files.createTempFile("external-out", ".bin");
+        try {
+            Random random = new Random(79);
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+                for (int i = 0; i < n; i++) {
+                    if (buffer.remaining() < recordSize) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) channel.write(buffer);
+                        buffer.clear();
+                    }
+                    buffer.putLong(random.nextLong()).putLong(i);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+            System.out.printf("%nn = %d registros de %d bytes, presupuesto %d KiB%n", n, recordSize, budget >> 10);
+
+            double inMemory = Double.MAX_VALUE;
+            long[] keys = new long[n];
+            int[] order = new int[n];
+            for (int r = 0; r < reps; r++) {
+                try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                    ByteBuffer all = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) n * recordSize);
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < n; i++) {
+                        keys[i] = all.getLong(i * recordSize);
+                        order[i] = i;
+                    }
+                    RadixSortEngine.sort(keys, order);
+                    inMemory = Math.min(inMemory, (System.nanoTime() - t0) / 1e6);
+                }
+            }
+            System.out.printf("%-32s %10.2f ms%n", "RadixSortEngine (solo claves)", inMemory);
+
+            for (int fanIn : new int[] {64, 4}) {
+                ExternalSort sorter = new ExternalSort(recordSize, 0, Long.BYTES).memoryBudget(budget).fanIn(fanIn);
+                double best = Double.MAX_VALUE;
+                for (int r = 0; r < reps; r++) {
+                    long t0 = System.nanoTime();
+                    sorter.sort(input, output);
+                    best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+                    checkExternal(output, recordSize, n);
+                }
+                System.out.printf("%-32s %10.2f ms (%.0f MB/s)%n", "ExternalSort fanIn " + fanIn, best,
+                                  (double) n * recordSize / 1e3 / best);
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    // Claves en orden y, en empate, cargas (índices originales) crecientes
+    static void checkExternal(Path file, int recordSize, int n) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != (long) n * recordSize) {
+                throw new IllegalStateException("ExternalSort escribió " + channel.size() + " bytes");
+            }
+            ByteBuffer all = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int i = 1; i < n; i++) {
+                long a = all.getLong((i - 1) * recordSize), b = all.getLong(i * recordSize);
+                if (a > b || (a == b && all.getLong((i - 1) * recordSize + 8) > all.getLong(i * recordSize + 8))) {
+                    throw new IllegalStateException("ExternalSort no ordenó en el registro " + i);
+                }
+            }
+        }
+    }
+
+    // k tramos ordenados fusionados con el árbol de perdedores frente a
+    // fusionar de a pares (log2(k) pasadas) y a reordenar todo
+    static void benchmarkLoserTree(int n, int reps) {
+        int[] data = new Random(83).ints(n).toArray();
+        for (int k : new int[] {16, 256, 4096}) {
+            int[][] runs = new int[k][];
+            for (int r = 0; r < k; r++) {
+                runs[r] = Arrays.copyOfRange(data, (int) ((long) n * r / k), (int) ((long) n * (r + 1) / k));
+                Arrays.sort(runs[r]);
+            }
+            int[] concat = new int[n];
+            for (int r = 0, p = 0; r < k; p += runs[r].length, r++) {
+                System.arraycopy(runs[r], 0, concat, p, runs[r].length);
+            }
+            System.out.println("\nn = " + n + ", fusión de " + k + " tramos");
+            double full = time("Arrays.sort", Arrays::sort, concat, reps);
+            time("MergeSortEngine.merge por pares", a -> mergePairs(a, k), concat, reps);
+
+            double tree = Double.MAX_VALUE;
+            int[] out = new int[n];
+            for (int r = 0; r < reps; r++) {
+                long t0 = System.nanoTime();
+                LoserTree.OfInt merger = new LoserTree.OfInt(runs);
+                for (int off = 0; off < n; ) {
+                    off += merger.drainTo(out, off, Math.min(1 << 12, n - off));
+                }
+                tree = Math.min(tree, (System.nanoTime() - t0) / 1e6);
+                checkSorted("LoserTree.OfInt", out);
+            }
+            System.out.printf("%-32s %10.2f ms%n", "LoserTree.drainTo", tree);
+            System.out.printf("Aceleración árbol de perdedores vs Arrays.sort: %.2fx%n", full / tree);
+        }
+    }
+
+    // Fusiona los k tramos contiguos de a (los mismos límites que arriba) de a
+    // pares, alternando entre a y un buffer
+    static void mergePairs(int[] a, int k) {
+        int n = a.length;
+        int[] src = a, dst = new int[n];
+        for (int width = 1; width < k; width *= 2) {
+            for (int r = 0; r < k; r += 2 * width) {
+                int lo = (int) ((long) n * r / k);
+                int mid = (int) ((long) n * Math.min(r + width, k) / k);
+                int hi = (int) ((long) n * Math.min(r + 2 * width, k) / k);
+                MergeSortEngine.merge(src, lo, mid, hi, dst, lo);
+            }
+            int[] t = src; src = dst; dst = t;
+        }
+        if (src != a) System.arraycopy(src, 0, a, 0, n);
+    }
+
+    // Flujo de bloques: latencia de cada push frente a acumular todo y pagar
+    // un único Arrays.sort al final, con y sin volcado a disco
+    static void benchmarkIncremental(int n, int chunk, int reps) {
+        int[] data = new Random(89).ints(n).toArray();
+        System.out.println("\nn = " + n + ", bloques de " + chunk + ", ordenamiento incremental");
+
+        time("Arrays.sort (todo al final)", Arrays::sort, data, reps);
+        int[] all = data.clone();
+        Arrays.sort(all);
+        long t0;
+
+        // 0: límite por defecto, que depende del heap máximo
+        for (long limit : new long[] {0, n / 8}) {
+            try (IncrementalSorter sorter = new IncrementalSorter()) {
+                if (limit > 0) sorter.memoryLimit(limit);
+                double worst = 0, total = 0;
+                for (int from = 0; from < n; from += chunk) {
+                    t0 = System.nanoTime();
+                    sorter.push(data, from, Math.min(from + chunk, n));
+                    double ms = (System.nanoTime() - t0) / 1e6;
+                    worst = Math.max(worst, ms);
+                    total += ms;
+                }
+                t0 = System.nanoTime();
+                int[] out = new int[n];
+                for (int off = 0; off < n; ) {
+                    off += sorter.drain(out, off, Math.min(1 << 16, n - off));
+                }
+                double drain = (System.nanoTime() - t0) / 1e6;
+                if (!Arrays.equals(out, all)) {
+                    throw new IllegalStateException("IncrementalSorter no coincide con Arrays.sort");
+                }
+                String name = limit == 0 ? "IncrementalSorter" : "IncrementalSorter (límite n/8)";
+                System.out.printf("%-32s push %.3f ms prom., %.2f ms peor, %.2f ms total; drain %.2f ms%n",
+                                  name, total * chunk / n, worst, total, drain);
+            }
+        }
+    }
+
+    // Lecturas de sensores: ruido gaussiano alrededor de una base, con algunos
+    // NaN (lecturas perdidas) y -0.0; el resultado debe coincidir bit a bit
+    // con Arrays.sort (orden de Double.compare)
+    static void benchmarkFloating(int n, int reps) {
+        Random random = new Random(97);
+        double[] readings = new double[n];
+        for (int i = 0; i < n; i++) {
+            int r = random.nextInt(1000);
+            readings[i] = r == 0 ? Double.NaN : r == 1 ? -0.0 : 20 + 5 * random.nextGaussian();
+        }
+        float[] narrow = new float[n];
+        for (int i = 0; i < n; i++) {
+            narrow[i] = (float) readings[i];
+        }
+        double[] expected = readings.clone();
+        Arrays.sort(expected);
+        float[] expectedNarrow = narrow.clone();
+        Arrays.sort(expectedNarrow);
+
+        System.out.println("\nn = " + n + ", lecturas double");
+        double base = timeDouble("Arrays.sort", Arrays::sort, readings, expected, reps);
+        timeDouble("BucketSortEngine.sort", BucketSortEngine::sort, readings, expected, reps);
+        double radix = timeDouble("RadixSortEngine.sort", RadixSortEngine::sort, readings, expected, reps);
+        System.out.printf("Aceleración radix vs Arrays.sort: %.2fx%n", base / radix);
+
+        System.out.println("\nn = " + n + ", lecturas float");
+        float[] work = new float[n];
+        double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        String[] names = {"Arrays.sort", "BucketSortEngine.sort", "RadixSortEngine.sort"};
+        for (int r = 0; r < reps; r++) {
+            for (int s = 0; s < 3; s++) {
+                System.arraycopy(narrow, 0, work, 0, n);
+                long t0 = System.nanoTime();
+                if (s == 0) Arrays.sort(work);
+                else if (s == 1) BucketSortEngine.sort(work);
+                else RadixSortEngine.sort(work);
+                best[s] = Math.min(best[s], (System.nanoTime() - t0) / 1e6);
+                if (!Arrays.equals(work, expectedNarrow)) {
+                    throw new IllegalStateException(names[s] + " no coincide con Arrays.sort(float[])");
+                }
+            }
+        }
+        for (int s = 0; s < 3; s++) {
+            System.out.printf("%-32s %10.2f ms%n", names[s], best[s]);
+        }
+        System.out.printf("Aceleración radix vs Arrays.sort: %.2fx%n", best[0] / best[2]);
+    }
+
+    // Mide cada umbral de AdaptiveSort comparando las dos opciones que separa
+    // y escribe el resultado en el archivo de -Dadaptivesort.config o en
+    // adaptive-sort.properties del directorio actual
+    static void calibrate(int reps) throws IOException {
+        AdaptiveSort.Thresholds d = AdaptiveSort.Thresholds.defaults();
+        Random random = new Random(79);
+        int total = 1 << 20;
+        reps = Math.max(reps, 5);
+        System.out.println("\nCalibración de AdaptiveSort");
+
+        // Calentamiento para que la primera medición no incluya la compilación
+        int[] warm = random.ints(1 << 16).toArray();
+        for (int r = 0; r < 20; r++) {
+            quiet(InsertionSortEngine::sort, Arrays.copyOf(warm, 64), 1);
+            quiet(QuickSortEngine::sort, warm, 1);
+            quiet(BucketSortEngine::sort, warm, 1);
+            quiet(RadixSortEngine::sort, warm, 1);
+            quiet(AdaptiveMergeSort::sort, warm, 1);
+            quiet(a -> CountingSortEngine.sort(a, 0, a.length), random.ints(1 << 16, 0, 1 << 17).toArray(), 1);
+        }
+
+        // Introsort frente a bucket sort: primer tamaño en que reparte mejor
+        int distributionMinSize = 1 << 16;
+        for (int m = 64; m <= 1 << 16; m *= 2) {
+            int[] data = wideChunks(random, total, m);
+            int len = m;
+            double quick = quiet(a -> sortChunks(a, len, QuickSortEngine::sort), data, reps);
+            double bucket = quiet(a -> sortChunks(a, len, (b, from, to) -> BucketSortEngine.sort(b, from, to, null)),
+                                  data, reps);
+            System.out.printf("  tramos de %-6d introsort %8.2f ms, bucket %8.2f ms%n", m, quick, bucket);
+            if (bucket < quick) {
+                distributionMinSize = m;
+                break;
+            }
+        }
+
+        // Inserción frente a lo que se usaría en su lugar (introsort o bucket)
+        // en tramos de rango amplio; el umbral es el último tamaño en que gana
+        int insertionMax = 0;
+        for (int m = 8; m <= 256; m *= 2) {
+            int[] data = wideChunks(random, total, m);
+            int len = m;
+            double ins = quiet(a -> sortChunks(a, len, InsertionSortEngine::sort), data, reps);
+            double next = m < distributionMinSize
+                    ? quiet(a -> sortChunks(a, len, QuickSortEngine::sort), data, reps)
+                    : quiet(a -> sortChunks(a, len, (b, from, to) -> BucketSortEngine.sort(b, from, to, null)),
+                            data, reps);
+            System.out.printf("  tramos de %-6d inserción %8.2f ms, alternativa %8.2f ms%n", m, ins, next);
+            if (ins > next) break;
+            insertionMax = m;
+        }
+
+        // Bucket frente a radix con datos uniformes: primer tamaño en que gana radix
+        int radixMinSize = 1 << 24;
+        for (int m = 1 << 12; m <= 1 << 22; m *= 4) {
+            int[] data = random.ints(m).toArray();
+            double bucket = quiet(BucketSortEngine::sort, data, reps);
+            double radix = quiet(RadixSortEngine::sort, data, reps);
+            System.out.printf("  n = %-8d bucket %8.2f ms, radix %8.2f ms%n", m, bucket, radix);
+            if (radix < bucket) {
+                radixMinSize = m;
+                break;
+            }
+        }
+
+        // Counting frente a bucket según rango / n
+        int countingRangeFactor = 1;
+        int n = 1 << 16;
+        for (int f = 1; f <= 16; f *= 2) {
+            int[] data = random.ints(n, 0, n * f).toArray();
+            double counting = quiet(a -> CountingSortEngine.sort(a, 0, a.length), data, reps);
+            double bucket = quiet(BucketSortEngine::sort, data, reps);
+            System.out.printf("  rango %2d·n counting %8.2f ms, bucket %8.2f ms%n", f, counting, bucket);
+            if (counting <= bucket) countingRangeFactor = f;
+        }
+
+        // Merge adaptativo frente a radix con una fracción creciente de desorden
+        double presortedMaxDescents = 0;
+        n = 1 << 20;
+        for (double frac : new double[] {0.001, 0.005, 0.02, 0.05, 0.1, 0.2}) {
+            int[] data = new int[n];
+            for (int i = 0; i < n; i++) data[i] = i * 1000;
+            for (int i = 1; i < n; i++) {
+                if (random.nextDouble() < frac) {
+                    int t = data[i];
+                    data[i] = data[i - 1];
+                    data[i - 1] = t;
+                }
+            }
+            double adaptive = quiet(AdaptiveMergeSort::sort, data, reps);
+            double radix = quiet(RadixSortEngine::sort, data, reps);
+            double measured = AdaptiveSort.descentRatio(data);
+            System.out.printf("  descensos %.3f  merge adaptativo %8.2f ms, radix %8.2f ms%n", measured, adaptive, radix);
+            if (adaptive <= radix) presortedMaxDescents = Math.max(presortedMaxDescents, measured);
+        }
+
+        AdaptiveSort.Thresholds t = new AdaptiveSort.Thresholds(insertionMax, countingRangeFactor,
+                presortedMaxDescents, distributionMinSize, radixMinSize, d.bucketMaxSkew, d.duplicateMin);
+        String file = System.getProperty(AdaptiveSort.CONFIG_PROPERTY, AdaptiveSort.CONFIG_FILE);
+        try (OutputStream out = Files.newOutputStream(Paths.get(file))) {
+            t.toProperties().store(out, "Umbrales de AdaptiveSort medidos por SortBenchmark calibrate");
+        }
+        System.out.println("Umbrales " + t + " escritos en " + file + "; AdaptiveSort los lee con -D" +
+                AdaptiveSort.CONFIG_PROPERTY + "=" + file + " o desde el classpath");
+    }
+
+    // Tramos de m valores de rango amplio, cada uno en su propio intervalo
+    // creciente para que el arreglo completo quede ordenado
+    static int[] wideChunks(Random random, int total, int m) {
+        int[] data = new int[total - total % m];
+        int chunks = data.length / m;
+        int width = Integer.MAX_VALUE / chunks;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Integer.MIN_VALUE + (i / m) * width + random.nextInt(width);
+        }
+        return data;
+    }
+
+    // Como time, pero sin imprimir cada medición
+    static double quiet(IntSort sorter, int[] data, int reps) {
+        int[] work = new int[data.length];
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sorter.sort(work);
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+            checkSorted("calibración", work);
+        }
+        return best;
+    }
+
+    // Top K con montículo mínimo acotado frente a ordenar todo y recortar
+    static void benchmarkTopK(int n, int k, int reps) {
+        long[] latencies = new Random(13).longs(n, 0, 10_000_000).toArray();
+        long[] work = new long[n];
+        double full = Double.MAX_VALUE;
+        double heap = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            System.arraycopy(latencies, 0, work, 0, n);
+            long t0 = System.nanoTime();
+            Arrays.sort(work);
+            long[] expected = Arrays.copyOfRange(work, n - k, n);
+            full = Math.min(full, (System.nanoTime() - t0) / 1e6);
+
+            t0 = System.nanoTime();
+            TopK.OfLong top = new TopK.OfLong(k);
+            top.addAll(latencies);
+            long[] result = top.toSortedArray();
+            heap = Math.min(heap, (System.nanoTime() - t0) / 1e6);
+            if (result[0] != expected[k - 1] || result[k - 1] != expected[0]) {
+                throw new IllegalStateException("TopK.OfLong no coincide con Arrays.sort");
+            }
+        }
+        System.out.printf("%nn = %d, top %d%n", n, k);
+        System.out.printf("%-32s %10.2f ms%n", "Arrays.sort + copyOfRange", full);
+        System.out.printf("%-32s %10.2f ms%n", "TopK.OfLong", heap);
+        System.out.printf("Aceleración top K vs ordenar todo: %.2fx%n", full / heap);
+    }
+
+    // Zapatos de 8 barajas mezclados y ordenados con counting sort sobre claves byte
+    static void benchmarkShoes(int shoes, int reps) {
+        CardDeck shoe = CardDeck.shoe(8);
+        Random random = new Random(3);
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            long sortNanos = 0;
+            for (int s = 0; s < shoes; s++) {
+                shoe.shuffle(random);
+                long t0 = System.nanoTime();
+                shoe.sort();
+                sortNanos += System.nanoTime() - t0;
+            }
+            best = Math.min(best, sortNanos / 1e6);
+        }
+        System.out.printf("%nn = %d zapatos de %d cartas%n", shoes, shoe.size());
+        System.out.printf("%-32s %10.2f ms (%.0f ns por zapato)%n", "CardDeck.sort", best, best * 1e6 / shoes);
+    }
+
+    // Devuelve la mejor marca en milisegundos
+    static double time(String name, IntSort sorter, int[] data, int reps) {
+        int[] work = new int[data.length];
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sorter.sort(work);
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+            checkSorted(name, work);
+        }
+        System.out.printf("%-32s %10.2f ms%n", name, best);
+        return best;
+    }
+
+    static double timeLong(String name, LongSort sorter, long[] data, int reps) {
+        long[] work = new long[data.length];
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sorter.sort(work);
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+            for (int i = 1; i < work.length; i++) {
+                if (work[i - 1] > work[i]) {
+                    throw new IllegalStateException(name + " no ordenó en la posición " + i);
+                }
+            }
+        }
+        System.out.printf("%-32s %10.2f ms%n", name, best);
+        return best;
+    }
+
+    // Arrays.equals(double[]) compara como Double.compare: distingue -0.0
+    static double timeDouble(String name, DoubleSort sorter, double[] data, double[] expected, int reps) {
+        double[] work = new double[data.length];
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < reps; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sorter.sort(work);
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+            if (!Arrays.equals(work, expected)) {
+                throw new IllegalStateException(name + " no coincide con Arrays.sort(double[])");
+            }
+        }
+        System.out.printf("%-32s %10.2f ms%n", name, best);
+        return best;
+    }
+
+    static void checkSorted(String name, int[] a) {
+        for (int i = 1; i < a.length; i++) {
+            if (a[i - 1] > a[i]) {
+                throw new IllegalStateException(name + " no ordenó en la posición " + i);
+            }
+        }
+    }
+}
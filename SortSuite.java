@@ -0,0 +1,356 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+// Matriz completa de mediciones: cada método del menú (y los motores extra)
+// frente a Arrays.sort y Arrays.parallelSort, por tamaño, tipo de elemento y
+// distribución de entrada. A diferencia de SortBenchmark, que mide casos
+// concretos con salida legible, aquí cada celda tiene calentamiento y varias
+// iteraciones medidas, y el resultado sale en JSON para compararlo entre
+// máquinas o alimentar la calibración de los umbrales.
+//
+// Uso: java SortSuite [--sizes=1000,100000] [--types=int,long,double]
+//        [--distributions=uniform,zipf] [--algorithms=quick,merge]
+//        [--warmup=2] [--iterations=5] [--seed=1] [--out=resultados.json]
+// Tamaños de 1e8 necesitan un heap de varios GB (por ejemplo -Xmx8g).
+public final class SortSuite {
+    static final String[] DISTRIBUTIONS = {
+        "uniform", "gaussian", "zipf", "sorted", "reverse", "few-unique", "sawtooth"
+    };
+    static final int[] DEFAULT_SIZES = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+    // Los métodos O(n²) solo se miden hasta este tamaño
+    static final int QUADRATIC_LIMIT = 10_000;
+
+    private SortSuite() {
+    }
+
+    interface IntSort {
+        void sort(int[] a);
+    }
+
+    interface LongSort {
+        void sort(long[] a);
+    }
+
+    interface DoubleSort {
+        void sort(double[] a);
+    }
+
+    // Un método para un tipo de elemento; solo uno de los tres está presente
+    static final class Algorithm {
+        final String name;
+        final String type;
+        final int maxSize;
+        final IntSort ints;
+        final LongSort longs;
+        final DoubleSort doubles;
+
+        Algorithm(String name, String type, int maxSize, IntSort ints, LongSort longs, DoubleSort doubles) {
+            this.name = name;
+            this.type = type;
+            this.maxSize = maxSize;
+            this.ints = ints;
+            this.longs = longs;
+            this.doubles = doubles;
+        }
+    }
+
+    static List<Algorithm> algorithms() {
+        int all = Integer.MAX_VALUE;
+        List<Algorithm> list = new ArrayList<>();
+        list.add(ofInt("Arrays.sort", all, Arrays::sort));
+        list.add(ofInt("Arrays.parallelSort", all, Arrays::parallelSort));
+        list.add(ofInt("bucket", all, BucketSortEngine::sort));
+        list.add(ofInt("bucket-parallel", all, BucketSortEngine::parallelSort));
+        list.add(ofInt("counting", all, CountingSortEngine::sort));
+        list.add(ofInt("radix", all, RadixSortEngine::sort));
+        list.add(ofInt("heap", all, HeapSortEngine::sort));
+        list.add(ofInt("merge", all, MergeSortEngine::sort));
+        list.add(ofInt("merge-parallel", all, MergeSortEngine::parallelSort));
+        list.add(ofInt("adaptive-merge", all, AdaptiveMergeSort::sort));
+        list.add(ofInt("insertion", QUADRATIC_LIMIT, InsertionSortEngine::sort));
+        list.add(ofInt("quick", all, QuickSortEngine::sort));
+        list.add(ofInt("quick-parallel", all, QuickSortEngine::parallelSort));
+        list.add(ofInt("selection", QUADRATIC_LIMIT, SelectionSortEngine::sort));
+        list.add(ofInt("tournament", all, TournamentTree::sort));
+
+        list.add(ofLong("Arrays.sort", all, Arrays::sort));
+        list.add(ofLong("Arrays.parallelSort", all, Arrays::parallelSort));
+        list.add(ofLong("bucket", all, BucketSortEngine::sort));
+        list.add(ofLong("radix", all, RadixSortEngine::sort));
+        list.add(ofLong("heap", all, HeapSortEngine::sort));
+        list.add(ofLong("merge", all, MergeSortEngine::sort));
+        list.add(ofLong("adaptive-merge", all, AdaptiveMergeSort::sort));
+        list.add(ofLong("insertion", QUADRATIC_LIMIT, InsertionSortEngine::sort));
+        list.add(ofLong("quick", all, QuickSortEngine::sort));
+        list.add(ofLong("quick-parallel", all, QuickSortEngine::parallelSort));
+        list.add(ofLong("selection", QUADRATIC_LIMIT, SelectionSortEngine::sort));
+        list.add(ofLong("tournament", all, TournamentTree::sort));
+
+        list.add(ofDouble("Arrays.sort", all, Arrays::sort));
+        list.add(ofDouble("Arrays.parallelSort", all, Arrays::parallelSort));
+        list.add(ofDouble("bucket", all, BucketSortEngine::sort));
+        list.add(ofDouble("radix", all, RadixSortEngine::sort));
+        list.add(ofDouble("insertion", QUADRATIC_LIMIT, InsertionSortEngine::sort));
+        return list;
+    }
+
+    static Algorithm ofInt(String name, int maxSize, IntSort sort) {
+        return new Algorithm(name, "int", maxSize, sort, null, null);
+    }
+
+    static Algorithm ofLong(String name, int maxSize, LongSort sort) {
+        return new Algorithm(name, "long", maxSize, null, sort, null);
+    }
+
+    static Algorithm ofDouble(String name, int maxSize, DoubleSort sort) {
+        return new Algorithm(name, "double", maxSize, null, null, sort);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = DEFAULT_SIZES;
+        Set<String> types = new HashSet<>(Arrays.asList("int", "long", "double", "cards"));
+        Set<String> distributions = new HashSet<>(Arrays.asList(DISTRIBUTIONS));
+        Set<String> names = null;
+        int warmup = 2, iterations = 5;
+        long seed = 1;
+        String out = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "--sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(s -> (int) Double.parseDouble(s)).toArray();
+                    break;
+                case "--types":
+                    types = new HashSet<>(Arrays.asList(value.split(",")));
+                    break;
+                case "--distributions":
+                    distributions = new HashSet<>(Arrays.asList(value.split(",")));
+                    break;
+                case "--algorithms":
+                    names = new HashSet<>(Arrays.asList(value.split(",")));
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--out":
+                    out = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + arg);
+            }
+        }
+
+        List<String> results = new ArrayList<>();
+        for (int n : sizes) {
+            for (String dist : DISTRIBUTIONS) {
+                if (!distributions.contains(dist)) continue;
+                int[] ints = generate(dist, n, seed);
+                long[] longs = null;
+                double[] doubles = null;
+                for (Algorithm alg : algorithms()) {
+                    if (!types.contains(alg.type) || n > alg.maxSize) continue;
+                    if (names != null && !names.contains(alg.name)) continue;
+                    double[] times;
+                    if (alg.ints != null) {
+                        times = measureInt(alg.ints, ints, warmup, iterations);
+                    } else if (alg.longs != null) {
+                        if (longs == null) longs = widen(ints);
+                        times = measureLong(alg.longs, longs, warmup, iterations);
+                    } else {
+                        if (doubles == null) doubles = toDouble(ints);
+                        times = measureDouble(alg.doubles, doubles, warmup, iterations);
+                    }
+                    results.add(record(alg.name, alg.type, dist, n, warmup, times));
+                    System.err.printf("%-20s %-7s %-11s %,12d %10.3f ms%n",
+                                      alg.name, alg.type, dist, n, median(times));
+                }
+            }
+            // El mazo solo tiene 52 claves: se mide el zapato barajado
+            if (types.contains("cards") && n >= CardDeck.KEYS && (names == null || names.contains("cards"))) {
+                int shoes = n / CardDeck.KEYS;
+                double[] times = measureCards(shoes, seed, warmup, iterations);
+                results.add(record("CardDeck.sort", "cards", "uniform", shoes * CardDeck.KEYS, warmup, times));
+                System.err.printf("%-20s %-7s %-11s %,12d %10.3f ms%n",
+                                  "CardDeck.sort", "cards", "uniform", shoes * CardDeck.KEYS, median(times));
+            }
+        }
+
+        String json = toJson(results);
+        if (out == null) {
+            System.out.println(json);
+        } else {
+            Files.write(Paths.get(out), json.getBytes(StandardCharsets.UTF_8));
+            System.err.println("Resultados en " + out);
+        }
+    }
+
+    // ------------------------------------------------------------ entradas
+
+    // Las distribuciones se generan como int y se ensanchan a long y double,
+    // así los tres tipos ordenan los mismos valores
+    static int[] generate(String dist, int n, long seed) {
+        Random random = new Random(seed ^ dist.hashCode());
+        int[] a = new int[n];
+        switch (dist) {
+            case "uniform":
+                for (int i = 0; i < n; i++) a[i] = random.nextInt();
+                break;
+            case "gaussian":
+                for (int i = 0; i < n; i++) a[i] = (int) (random.nextGaussian() * 1_000_000);
+                break;
+            case "zipf":
+                // Rango k con probabilidad ~ 1/k (exponente 1) sobre n valores
+                double logN = Math.log(Math.max(2, n));
+                for (int i = 0; i < n; i++) a[i] = (int) Math.exp(random.nextDouble() * logN);
+                break;
+            case "sorted":
+                for (int i = 0; i < n; i++) a[i] = i;
+                break;
+            case "reverse":
+                for (int i = 0; i < n; i++) a[i] = n - i;
+                break;
+            case "few-unique":
+                for (int i = 0; i < n; i++) a[i] = random.nextInt(16);
+                break;
+            case "sawtooth":
+                for (int i = 0; i < n; i++) a[i] = i % 1024;
+                break;
+            default:
+                throw new IllegalArgumentException("Distribución desconocida: " + dist);
+        }
+        return a;
+    }
+
+    static long[] widen(int[] a) {
+        long[] out = new long[a.length];
+        for (int i = 0; i < a.length; i++) out[i] = a[i];
+        return out;
+    }
+
+    static double[] toDouble(int[] a) {
+        double[] out = new double[a.length];
+        for (int i = 0; i < a.length; i++) out[i] = a[i];
+        return out;
+    }
+
+    // ------------------------------------------------------------ medición
+
+    // Devuelve los tiempos medidos en ms; el calentamiento se descarta
+    static double[] measureInt(IntSort sort, int[] data, int warmup, int iterations) {
+        int[] work = new int[data.length];
+        double[] times = new double[iterations];
+        for (int r = -warmup; r < iterations; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sort.sort(work);
+            long t1 = System.nanoTime();
+            for (int i = 1; i < work.length; i++) {
+                if (work[i - 1] > work[i]) throw new IllegalStateException("No ordenó en " + i);
+            }
+            if (r >= 0) times[r] = (t1 - t0) / 1e6;
+        }
+        return times;
+    }
+
+    static double[] measureLong(LongSort sort, long[] data, int warmup, int iterations) {
+        long[] work = new long[data.length];
+        double[] times = new double[iterations];
+        for (int r = -warmup; r < iterations; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sort.sort(work);
+            long t1 = System.nanoTime();
+            for (int i = 1; i < work.length; i++) {
+                if (work[i - 1] > work[i]) throw new IllegalStateException("No ordenó en " + i);
+            }
+            if (r >= 0) times[r] = (t1 - t0) / 1e6;
+        }
+        return times;
+    }
+
+    static double[] measureDouble(DoubleSort sort, double[] data, int warmup, int iterations) {
+        double[] work = new double[data.length];
+        double[] times = new double[iterations];
+        for (int r = -warmup; r < iterations; r++) {
+            System.arraycopy(data, 0, work, 0, data.length);
+            long t0 = System.nanoTime();
+            sort.sort(work);
+            long t1 = System.nanoTime();
+            for (int i = 1; i < work.length; i++) {
+                if (work[i - 1] > work[i]) throw new IllegalStateException("No ordenó en " + i);
+            }
+            if (r >= 0) times[r] = (t1 - t0) / 1e6;
+        }
+        return times;
+    }
+
+    static double[] measureCards(int shoes, long seed, int warmup, int iterations) {
+        CardDeck deck = CardDeck.shoe(shoes);
+        Random random = new Random(seed);
+        double[] times = new double[iterations];
+        for (int r = -warmup; r < iterations; r++) {
+            deck.shuffle(random);
+            long t0 = System.nanoTime();
+            deck.sort();
+            long t1 = System.nanoTime();
+            if (r >= 0) times[r] = (t1 - t0) / 1e6;
+        }
+        return times;
+    }
+
+    static double median(double[] times) {
+        double[] s = times.clone();
+        Arrays.sort(s);
+        int m = s.length >>> 1;
+        return s.length % 2 == 1 ? s[m] : (s[m - 1] + s[m]) / 2;
+    }
+
+    // -------------------------------------------------------------- JSON
+
+    static String record(String name, String type, String dist, int n, int warmup, double[] times) {
+        double min = Double.MAX_VALUE, max = 0, sum = 0;
+        for (double t : times) {
+            min = Math.min(min, t);
+            max = Math.max(max, t);
+            sum += t;
+        }
+        double median = median(times);
+        return String.format(Locale.ROOT,
+                "{\"algorithm\": \"%s\", \"type\": \"%s\", \"distribution\": \"%s\", \"size\": %d, " +
+                "\"warmup\": %d, \"iterations\": %d, \"minMs\": %.4f, \"medianMs\": %.4f, " +
+                "\"meanMs\": %.4f, \"maxMs\": %.4f, \"nsPerElement\": %.3f}",
+                name, type, dist, n, warmup, times.length, min, median,
+                sum / times.length, max, median * 1e6 / Math.max(1, n));
+    }
+
+    static String toJson(List<String> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        sb.append("  \"cores\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        sb.append("  \"maxHeapMb\": ").append(Runtime.getRuntime().maxMemory() >> 20).append(",\n");
+        sb.append("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            sb.append(i == 0 ? "\n    " : ",\n    ").append(results.get(i));
+        }
+        sb.append("\n  ]\n}");
+        return sb.toString();
+    }
+}
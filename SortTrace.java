@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Receptor de eventos de un ordenamiento con traza: comparaciones,
+// intercambios y escrituras, siempre con índices del arreglo ordenado. Los
+// motores lo reciben como parámetro opcional y, si es null, no emiten nada.
+// Los frames de Swing graban los eventos con Recorder y los reproducen para
+// dibujar cada paso.
+public interface SortTrace {
+    int COMPARE = 0;
+    int SWAP = 1;
+    int WRITE = 2;
+
+    // Se comparan a[i] y a[j]. Si uno de los valores está en mano fuera del
+    // arreglo (el pivote, el elemento que se inserta), j es la posición de la
+    // que salió o el hueco que ocuparía.
+    void compare(int i, int j);
+
+    // Se intercambian a[i] y a[j] (ya aplicado)
+    void swap(int i, int j);
+
+    // a[i] pasa a valer value (ya aplicado)
+    void write(int i, int value);
+
+    // Graba los eventos en un int[] compacto (tres enteros por evento) para
+    // contarlos o reproducirlos después, por ejemplo paso a paso en una animación
+    final class Recorder implements SortTrace {
+        private int[] events = new int[48];
+        private int size;
+        private final int[] counts = new int[3];
+
+        @Override
+        public void compare(int i, int j) {
+            add(COMPARE, i, j);
+        }
+
+        @Override
+        public void swap(int i, int j) {
+            add(SWAP, i, j);
+        }
+
+        @Override
+        public void write(int i, int value) {
+            add(WRITE, i, value);
+        }
+
+        private void add(int kind, int first, int second) {
+            if (3 * size + 3 > events.length) {
+                events = Arrays.copyOf(events, events.length * 2);
+            }
+            int p = 3 * size++;
+            events[p] = kind;
+            events[p + 1] = first;
+            events[p + 2] = second;
+            counts[kind]++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // COMPARE, SWAP o WRITE
+        public int kind(int event) {
+            return events[3 * event];
+        }
+
+        // Primer índice del evento
+        public int first(int event) {
+            return events[3 * event + 1];
+        }
+
+        // Segundo índice, o el valor escrito si es WRITE
+        public int second(int event) {
+            return events[3 * event + 2];
+        }
+
+        public int count(int kind) {
+            return counts[kind];
+        }
+
+        // Repite los eventos grabados sobre otro receptor
+        public void replay(SortTrace target) {
+            for (int e = 0; e < size; e++) {
+                int p = 3 * e;
+                switch (events[p]) {
+                    case COMPARE:
+                        target.compare(events[p + 1], events[p + 2]);
+                        break;
+                    case SWAP:
+                        target.swap(events[p + 1], events[p + 2]);
+                        break;
+                    default:
+                        target.write(events[p + 1], events[p + 2]);
+                        break;
+                }
+            }
+        }
+
+        public void clear() {
+            size = 0;
+            Arrays.fill(counts, 0);
+        }
+    }
+}
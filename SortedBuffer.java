@@ -0,0 +1,369 @@
+import java.util.Arrays;
+
+// Buffer primitivo que se mantiene ordenado mientras llegan valores, para
+// ventanas de valores recientes (percentiles, medianas móviles) sin volver a
+// ordenar la ventana en cada llegada.
+//  - insert: búsqueda binaria y un System.arraycopy, O(n) de desplazamiento.
+//  - insertAll: ordena el lote aparte y lo fusiona desde el final en una sola
+//    pasada, sin buffer del tamaño de la ventana.
+//  - append: solo anexa; la siguiente consulta ordena solo los anexos y los
+//    fusiona con el prefijo ya ordenado. Shell sort (saltos de Ciura) en el
+//    sitio queda para un buffer hecho solo de anexos muy desordenados.
+// El arreglo crece un 50 % cada vez, así que el costo de crecer es amortizado.
+public final class SortedBuffer {
+    static final int INITIAL_CAPACITY = 16;
+    // Lotes o anexos de este tamaño o menos se insertan uno a uno
+    static final int BATCH_INSERTION = 32;
+    // Sin prefijo ordenado, Shell sort si más de uno de cada SHELL_DISORDER
+    // anexos rompe el orden
+    static final int SHELL_DISORDER = 8;
+
+    private SortedBuffer() {
+    }
+
+    public static final class OfInt {
+        private int[] data;
+        private int size;
+        // data[0, sorted) está ordenado; data[sorted, size) son anexos pendientes
+        private int sorted;
+        // Anexos menores que su predecesor desde el último ordenamiento
+        private int descents;
+        private int[] scratch = new int[0];
+
+        public OfInt() {
+            this(INITIAL_CAPACITY);
+        }
+
+        public OfInt(int capacity) {
+            data = new int[Math.max(1, capacity)];
+        }
+
+        // Inserción inmediata: búsqueda binaria y un solo desplazamiento
+        public void insert(int v) {
+            ensureSorted();
+            int pos = upperBound(data, size, v);
+            ensureCapacity(size + 1);
+            System.arraycopy(data, pos, data, pos + 1, size - pos);
+            data[pos] = v;
+            sorted = ++size;
+        }
+
+        // Anexa sin ordenar; el orden se restaura en la siguiente consulta
+        public void append(int v) {
+            ensureCapacity(size + 1);
+            if (size > 0 && v < data[size - 1]) descents++;
+            data[size++] = v;
+        }
+
+        // Inserta un lote: lo ordena aparte y lo fusiona con una sola pasada
+        public void insertAll(int[] values, int from, int to) {
+            ensureSorted();
+            int m = to - from;
+            if (m == 0) return;
+            if (m <= BATCH_INSERTION) {
+                ensureCapacity(size + m);
+                System.arraycopy(values, from, data, size, m);
+                InsertionSortEngine.binarySort(data, 0, size + m, size);
+                sorted = size += m;
+                return;
+            }
+            if (scratch.length < m) scratch = new int[Math.max(m, scratch.length * 2)];
+            System.arraycopy(values, from, scratch, 0, m);
+            QuickSortEngine.sort(scratch, 0, m);
+            mergeBack(m);
+        }
+
+        public void insertAll(int[] values) {
+            insertAll(values, 0, values.length);
+        }
+
+        // Quita una aparición de v; devuelve false si no estaba
+        public boolean remove(int v) {
+            ensureSorted();
+            int pos = lowerBound(data, size, v);
+            if (pos == size || data[pos] != v) return false;
+            System.arraycopy(data, pos + 1, data, pos, size - pos - 1);
+            sorted = --size;
+            return true;
+        }
+
+        // Quita los valores menores que bound (la parte vieja de una ventana
+        // ordenada por tiempo) y devuelve cuántos salieron
+        public int removeBelow(int bound) {
+            ensureSorted();
+            int k = lowerBound(data, size, bound);
+            System.arraycopy(data, k, data, 0, size - k);
+            sorted = size -= k;
+            return k;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Índice " + index + " con tamaño " + size);
+            }
+            ensureSorted();
+            return data[index];
+        }
+
+        // Cuántos valores son menores que v
+        public int rank(int v) {
+            ensureSorted();
+            return lowerBound(data, size, v);
+        }
+
+        public int[] toArray() {
+            ensureSorted();
+            return Arrays.copyOf(data, size);
+        }
+
+        public void clear() {
+            size = sorted = descents = 0;
+        }
+
+        // Deja data[0, size) ordenado. Solo se toca la cola de anexos: pocos se
+        // insertan con búsqueda binaria y si no se ordenan aparte y se fusionan
+        // con el prefijo en una pasada. Shell sort en el sitio queda para
+        // cuando no hay prefijo ordenado que conservar (todo son anexos) y
+        // llegaron muy desordenados, sin pedir un buffer del tamaño del arreglo.
+        private void ensureSorted() {
+            int tail = size - sorted;
+            if (tail == 0) return;
+            // Sin descensos los anexos llegaron en orden y detrás de lo anterior
+            if (descents == 0) {
+                sorted = size;
+                return;
+            }
+            if (tail <= BATCH_INSERTION) {
+                InsertionSortEngine.binarySort(data, 0, size, sorted);
+            } else if (sorted == 0 && descents > tail / SHELL_DISORDER) {
+                InsertionSortEngine.shellSort(data, 0, size);
+            } else {
+                if (scratch.length < tail) scratch = new int[Math.max(tail, scratch.length * 2)];
+                System.arraycopy(data, sorted, scratch, 0, tail);
+                QuickSortEngine.sort(scratch, 0, tail);
+                size = sorted;
+                mergeBack(tail);
+            }
+            sorted = size;
+            descents = 0;
+        }
+
+        // Fusiona scratch[0, m) con data[0, size) desde el final, escribiendo
+        // en data[0, size + m) sin otro buffer
+        private void mergeBack(int m) {
+            ensureCapacity(size + m);
+            int[] d = data, s = scratch;
+            int i = size - 1, j = m - 1, out = size + m - 1;
+            while (i >= 0 && j >= 0) {
+                d[out--] = s[j] >= d[i] ? s[j--] : d[i--];
+            }
+            if (j >= 0) System.arraycopy(s, 0, d, 0, j + 1);
+            sorted = size += m;
+        }
+
+        private void ensureCapacity(int min) {
+            if (min > data.length) {
+                data = Arrays.copyOf(data, Math.max(min, data.length + (data.length >> 1)));
+            }
+        }
+
+        // Primera posición con valor >= v
+        private static int lowerBound(int[] a, int n, int v) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < v) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        // Primera posición con valor > v
+        private static int upperBound(int[] a, int n, int v) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (v < a[mid]) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+    }
+
+    public static final class OfLong {
+        private long[] data;
+        private int size;
+        // data[0, sorted) está ordenado; data[sorted, size) son anexos pendientes
+        private int sorted;
+        // Anexos menores que su predecesor desde el último ordenamiento
+        private int descents;
+        private long[] scratch = new long[0];
+
+        public OfLong() {
+            this(INITIAL_CAPACITY);
+        }
+
+        public OfLong(int capacity) {
+            data = new long[Math.max(1, capacity)];
+        }
+
+        // Inserción inmediata: búsqueda binaria y un solo desplazamiento
+        public void insert(long v) {
+            ensureSorted();
+            int pos = upperBound(data, size, v);
+            ensureCapacity(size + 1);
+            System.arraycopy(data, pos, data, pos + 1, size - pos);
+            data[pos] = v;
+            sorted = ++size;
+        }
+
+        // Anexa sin ordenar; el orden se restaura en la siguiente consulta
+        public void append(long v) {
+            ensureCapacity(size + 1);
+            if (size > 0 && v < data[size - 1]) descents++;
+            data[size++] = v;
+        }
+
+        // Inserta un lote: lo ordena aparte y lo fusiona con una sola pasada
+        public void insertAll(long[] values, int from, int to) {
+            ensureSorted();
+            int m = to - from;
+            if (m == 0) return;
+            if (m <= BATCH_INSERTION) {
+                ensureCapacity(size + m);
+                System.arraycopy(values, from, data, size, m);
+                InsertionSortEngine.binarySort(data, 0, size + m, size);
+                sorted = size += m;
+                return;
+            }
+            if (scratch.length < m) scratch = new long[Math.max(m, scratch.length * 2)];
+            System.arraycopy(values, from, scratch, 0, m);
+            QuickSortEngine.sort(scratch, 0, m);
+            mergeBack(m);
+        }
+
+        public void insertAll(long[] values) {
+            insertAll(values, 0, values.length);
+        }
+
+        // Quita una aparición de v; devuelve false si no estaba
+        public boolean remove(long v) {
+            ensureSorted();
+            int pos = lowerBound(data, size, v);
+            if (pos == size || data[pos] != v) return false;
+            System.arraycopy(data, pos + 1, data, pos, size - pos - 1);
+            sorted = --size;
+            return true;
+        }
+
+        // Quita los valores menores que bound (la parte vieja de una ventana
+        // ordenada por tiempo) y devuelve cuántos salieron
+        public int removeBelow(long bound) {
+            ensureSorted();
+            int k = lowerBound(data, size, bound);
+            System.arraycopy(data, k, data, 0, size - k);
+            sorted = size -= k;
+            return k;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Índice " + index + " con tamaño " + size);
+            }
+            ensureSorted();
+            return data[index];
+        }
+
+        // Cuántos valores son menores que v
+        public int rank(long v) {
+            ensureSorted();
+            return lowerBound(data, size, v);
+        }
+
+        public long[] toArray() {
+            ensureSorted();
+            return Arrays.copyOf(data, size);
+        }
+
+        public void clear() {
+            size = sorted = descents = 0;
+        }
+
+        // Deja data[0, size) ordenado. Solo se toca la cola de anexos: pocos se
+        // insertan con búsqueda binaria y si no se ordenan aparte y se fusionan
+        // con el prefijo en una pasada. Shell sort en el sitio queda para
+        // cuando no hay prefijo ordenado que conservar (todo son anexos) y
+        // llegaron muy desordenados, sin pedir un buffer del tamaño del arreglo.
+        private void ensureSorted() {
+            int tail = size - sorted;
+            if (tail == 0) return;
+            // Sin descensos los anexos llegaron en orden y detrás de lo anterior
+            if (descents == 0) {
+                sorted = size;
+                return;
+            }
+            if (tail <= BATCH_INSERTION) {
+                InsertionSortEngine.binarySort(data, 0, size, sorted);
+            } else if (sorted == 0 && descents > tail / SHELL_DISORDER) {
+                InsertionSortEngine.shellSort(data, 0, size);
+            } else {
+                if (scratch.length < tail) scratch = new long[Math.max(tail, scratch.length * 2)];
+                System.arraycopy(data, sorted, scratch, 0, tail);
+                QuickSortEngine.sort(scratch, 0, tail);
+                size = sorted;
+                mergeBack(tail);
+            }
+            sorted = size;
+            descents = 0;
+        }
+
+        // Fusiona scratch[0, m) con data[0, size) desde el final, escribiendo
+        // en data[0, size + m) sin otro buffer
+        private void mergeBack(int m) {
+            ensureCapacity(size + m);
+            long[] d = data, s = scratch;
+            int i = size - 1, j = m - 1, out = size + m - 1;
+            while (i >= 0 && j >= 0) {
+                d[out--] = s[j] >= d[i] ? s[j--] : d[i--];
+            }
+            if (j >= 0) System.arraycopy(s, 0, d, 0, j + 1);
+            sorted = size += m;
+        }
+
+        private void ensureCapacity(int min) {
+            if (min > data.length) {
+                data = Arrays.copyOf(data, Math.max(min, data.length + (data.length >> 1)));
+            }
+        }
+
+        // Primera posición con valor >= v
+        private static int lowerBound(long[] a, int n, long v) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < v) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        // Primera posición con valor > v
+        private static int upperBound(long[] a, int n, long v) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (v < a[mid]) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+// Ordenamiento de int[] sin dependencias de Swing, común a todos los métodos
+// del menú. Las dos variantes de sort ejecutan el mismo motor; la que recibe
+// un SortTrace le avisa cada paso, y con trace == null equivale a la otra.
+public interface Sorter {
+
+    String name();
+
+    void sort(int[] a, int from, int to);
+
+    void sort(int[] a, int from, int to, SortTrace trace);
+
+    default void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+}
@@ -0,0 +1,73 @@
+// Los métodos del menú como Sorter. Cada uno delega en su motor, con o sin
+// traza: la variante con SortTrace ejecuta el mismo código que la rápida y
+// el motor solo avisa los pasos si recibe un receptor. Los motores ajustan el
+// algoritmo al tamaño igual que en producción; por ejemplo, Merge y Quick
+// Sort ordenan por inserción los tramos pequeños.
+public final class Sorters {
+
+    public static final Sorter BUCKET = of("Bucket Sort",
+            (a, from, to) -> BucketSortEngine.sort(a, from, to, null),
+            (a, from, to, trace) -> BucketSortEngine.sort(a, from, to, null, trace));
+    public static final Sorter COUNTING = of("Counting Sort",
+            CountingSortEngine::sort, CountingSortEngine::sort);
+    public static final Sorter HEAP = of("Heap Sort",
+            HeapSortEngine::sort, HeapSortEngine::sort);
+    public static final Sorter MERGE = of("Merge Sort",
+            (a, from, to) -> MergeSortEngine.sort(a, from, to, null),
+            (a, from, to, trace) -> MergeSortEngine.sort(a, from, to, null, trace));
+    public static final Sorter INSERTION = of("Insertion Sort",
+            InsertionSortEngine::sort, InsertionSortEngine::sort);
+    public static final Sorter QUICK = of("Quick Sort",
+            QuickSortEngine::sort, QuickSortEngine::sort);
+    public static final Sorter SELECTION = of("Selection Sort",
+            SelectionSortEngine::sort, SelectionSortEngine::sort);
+
+    private static final Sorter[] ALL = {BUCKET, COUNTING, HEAP, MERGE, INSERTION, QUICK, SELECTION};
+
+    private Sorters() {
+    }
+
+    public static Sorter[] all() {
+        return ALL.clone();
+    }
+
+    // Busca por nombre, como aparece en el menú
+    public static Sorter byName(String name) {
+        for (Sorter s : ALL) {
+            if (s.name().equals(name)) return s;
+        }
+        throw new IllegalArgumentException("Método desconocido: " + name);
+    }
+
+    interface Fast {
+        void sort(int[] a, int from, int to);
+    }
+
+    interface Traced {
+        void sort(int[] a, int from, int to, SortTrace trace);
+    }
+
+    private static Sorter of(String name, Fast fast, Traced traced) {
+        return new Sorter() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void sort(int[] a, int from, int to) {
+                fast.sort(a, from, to);
+            }
+
+            @Override
+            public void sort(int[] a, int from, int to, SortTrace trace) {
+                traced.sort(a, from, to, trace);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
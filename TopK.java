@@ -0,0 +1,261 @@
+import java.util.Arrays;
+
+// Selección de los K mayores valores de un flujo sin ordenar toda la entrada.
+// Usa el mismo hundimiento que siftDown de HeapSortEngine, pero invertido: un
+// montículo mínimo de tamaño fijo K cuya raíz es el menor de los candidatos,
+// de modo que cada valor nuevo se compara solo con ella. Memoria O(K), sin
+// boxing; al final solo se ordenan los K supervivientes.
+public final class TopK {
+
+    private TopK() {
+    }
+
+    public static final class OfInt {
+        private final int[] heap;
+        private int size;
+
+        public OfInt(int k) {
+            heap = new int[checkK(k)];
+        }
+
+        public void add(int v) {
+            int[] h = heap;
+            if (size < h.length) {
+                siftUp(h, size++, v);
+            } else if (v > h[0]) {
+                siftDown(h, 0, size, v);
+            }
+        }
+
+        public void addAll(int[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(values[i]);
+            }
+        }
+
+        public void addAll(int[] values) {
+            addAll(values, 0, values.length);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Menor valor que sigue dentro del top (umbral de entrada)
+        public int threshold() {
+            if (size == 0) throw new IllegalStateException("TopK vacío");
+            return heap[0];
+        }
+
+        // Los supervivientes de mayor a menor; extraer la raíz de un montículo
+        // mínimo hacia el final deja el arreglo en orden descendente
+        public int[] toSortedArray() {
+            int[] out = Arrays.copyOf(heap, size);
+            for (int end = size - 1; end > 0; end--) {
+                int v = out[end];
+                out[end] = out[0];
+                siftDown(out, 0, end, v);
+            }
+            return out;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        private static void siftUp(int[] h, int i, int v) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                int p = h[parent];
+                if (p <= v) break;
+                h[i] = p;
+                i = parent;
+            }
+            h[i] = v;
+        }
+
+        private static void siftDown(int[] h, int i, int n, int v) {
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int c = h[child];
+                int right = child + 1;
+                if (right < n && h[right] < c) {
+                    child = right;
+                    c = h[right];
+                }
+                if (v <= c) break;
+                h[i] = c;
+                i = child;
+            }
+            h[i] = v;
+        }
+    }
+
+    public static final class OfLong {
+        private final long[] heap;
+        private int size;
+
+        public OfLong(int k) {
+            heap = new long[checkK(k)];
+        }
+
+        public void add(long v) {
+            long[] h = heap;
+            if (size < h.length) {
+                siftUp(h, size++, v);
+            } else if (v > h[0]) {
+                siftDown(h, 0, size, v);
+            }
+        }
+
+        public void addAll(long[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(values[i]);
+            }
+        }
+
+        public void addAll(long[] values) {
+            addAll(values, 0, values.length);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long threshold() {
+            if (size == 0) throw new IllegalStateException("TopK vacío");
+            return heap[0];
+        }
+
+        public long[] toSortedArray() {
+            long[] out = Arrays.copyOf(heap, size);
+            for (int end = size - 1; end > 0; end--) {
+                long v = out[end];
+                out[end] = out[0];
+                siftDown(out, 0, end, v);
+            }
+            return out;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        private static void siftUp(long[] h, int i, long v) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                long p = h[parent];
+                if (p <= v) break;
+                h[i] = p;
+                i = parent;
+            }
+            h[i] = v;
+        }
+
+        private static void siftDown(long[] h, int i, int n, long v) {
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                long c = h[child];
+                int right = child + 1;
+                if (right < n && h[right] < c) {
+                    child = right;
+                    c = h[right];
+                }
+                if (v <= c) break;
+                h[i] = c;
+                i = child;
+            }
+            h[i] = v;
+        }
+    }
+
+    // Para double se usa el orden de Double.compare: NaN es mayor que todo
+    // y -0.0 es menor que 0.0
+    public static final class OfDouble {
+        private final double[] heap;
+        private int size;
+
+        public OfDouble(int k) {
+            heap = new double[checkK(k)];
+        }
+
+        public void add(double v) {
+            double[] h = heap;
+            if (size < h.length) {
+                siftUp(h, size++, v);
+            } else if (Double.compare(v, h[0]) > 0) {
+                siftDown(h, 0, size, v);
+            }
+        }
+
+        public void addAll(double[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(values[i]);
+            }
+        }
+
+        public void addAll(double[] values) {
+            addAll(values, 0, values.length);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public double threshold() {
+            if (size == 0) throw new IllegalStateException("TopK vacío");
+            return heap[0];
+        }
+
+        public double[] toSortedArray() {
+            double[] out = Arrays.copyOf(heap, size);
+            for (int end = size - 1; end > 0; end--) {
+                double v = out[end];
+                out[end] = out[0];
+                siftDown(out, 0, end, v);
+            }
+            return out;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        private static void siftUp(double[] h, int i, double v) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                double p = h[parent];
+                if (Double.compare(p, v) <= 0) break;
+                h[i] = p;
+                i = parent;
+            }
+            h[i] = v;
+        }
+
+        private static void siftDown(double[] h, int i, int n, double v) {
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                double c = h[child];
+                int right = child + 1;
+                if (right < n && Double.compare(h[right], c) < 0) {
+                    child = right;
+                    c = h[right];
+                }
+                if (Double.compare(v, c) <= 0) break;
+                h[i] = c;
+                i = child;
+            }
+            h[i] = v;
+        }
+    }
+
+    private static int checkK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K debe ser positivo: " + k);
+        }
+        return k;
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// Ordenamiento por selección con árbol de torneo (árbol de ganadores).
+// Selection Sort vuelve a recorrer todo el sufijo para cada mínimo; aquí los
+// resultados de las comparaciones quedan en un árbol binario plano (int[]),
+// así que tras sacar el ganador solo se rejuegan los partidos de su camino:
+// O(n) para construir y O(log n) por cada siguiente mínimo, O(n log n) en
+// total. Como iterador perezoso permite parar tras los primeros valores sin
+// pagar el ordenamiento completo.
+public final class TournamentTree {
+
+    private TournamentTree() {
+    }
+
+    // Iterador perezoso sobre una copia de los valores: construir cuesta O(n)
+    // y cada siguiente mínimo O(log n)
+    public static final class OfInt implements PrimitiveIterator.OfInt {
+        private final int[] keys;
+        // Nodo i: índice del ganador de su subárbol en keys, o -1 si está vacío.
+        // Las hojas ocupan [leaves, 2 * leaves).
+        private final int[] tree;
+        private final int leaves;
+        private int remaining;
+
+        public OfInt(int[] values) {
+            this(values, 0, values.length);
+        }
+
+        public OfInt(int[] values, int from, int to) {
+            int n = to - from;
+            keys = Arrays.copyOfRange(values, from, to);
+            leaves = Math.max(1, Integer.highestOneBit(Math.max(1, n - 1)) << 1);
+            tree = new int[2 * leaves];
+            for (int j = 0; j < leaves; j++) {
+                tree[leaves + j] = j < n ? j : -1;
+            }
+            for (int i = leaves - 1; i >= 1; i--) {
+                tree[i] = winner(tree[2 * i], tree[2 * i + 1]);
+            }
+            remaining = n;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        // Menor valor pendiente, sin consumirlo
+        public int peek() {
+            if (remaining == 0) throw new NoSuchElementException();
+            return keys[tree[1]];
+        }
+
+        @Override
+        public int nextInt() {
+            if (remaining == 0) throw new NoSuchElementException();
+            int w = tree[1];
+            int v = keys[w];
+            // Vacía la hoja del ganador y rejuega solo su camino hasta la raíz
+            int i = leaves + w;
+            tree[i] = -1;
+            for (i >>>= 1; i >= 1; i >>>= 1) {
+                tree[i] = winner(tree[2 * i], tree[2 * i + 1]);
+            }
+            remaining--;
+            return v;
+        }
+
+        public int remaining() {
+            return remaining;
+        }
+
+        // En empates gana la izquierda, así el orden de salida es estable
+        private int winner(int l, int r) {
+            if (l < 0) return r;
+            if (r < 0) return l;
+            return keys[r] < keys[l] ? r : l;
+        }
+    }
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(int[] a, int from, int to) {
+        OfInt t = new OfInt(a, from, to);
+        for (int i = from; i < to; i++) {
+            a[i] = t.nextInt();
+        }
+    }
+
+    // Los k menores en orden, sin ordenar el resto
+    public static int[] smallest(int[] a, int k) {
+        OfInt t = new OfInt(a);
+        int[] out = new int[Math.min(k, a.length)];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = t.nextInt();
+        }
+        return out;
+    }
+
+    // Iterador perezoso sobre una copia de los valores: construir cuesta O(n)
+    // y cada siguiente mínimo O(log n)
+    public static final class OfLong implements PrimitiveIterator.OfLong {
+        private final long[] keys;
+        // Nodo i: índice del ganador de su subárbol en keys, o -1 si está vacío.
+        // Las hojas ocupan [leaves, 2 * leaves).
+        private final int[] tree;
+        private final int leaves;
+        private int remaining;
+
+        public OfLong(long[] values) {
+            this(values, 0, values.length);
+        }
+
+        public OfLong(long[] values, int from, int to) {
+            int n = to - from;
+            keys = Arrays.copyOfRange(values, from, to);
+            leaves = Math.max(1, Integer.highestOneBit(Math.max(1, n - 1)) << 1);
+            tree = new int[2 * leaves];
+            for (int j = 0; j < leaves; j++) {
+                tree[leaves + j] = j < n ? j : -1;
+            }
+            for (int i = leaves - 1; i >= 1; i--) {
+                tree[i] = winner(tree[2 * i], tree[2 * i + 1]);
+            }
+            remaining = n;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        // Menor valor pendiente, sin consumirlo
+        public long peek() {
+            if (remaining == 0) throw new NoSuchElementException();
+            return keys[tree[1]];
+        }
+
+        @Override
+        public long nextLong() {
+            if (remaining == 0) throw new NoSuchElementException();
+            int w = tree[1];
+            long v = keys[w];
+            // Vacía la hoja del ganador y rejuega solo su camino hasta la raíz
+            int i = leaves + w;
+            tree[i] = -1;
+            for (i >>>= 1; i >= 1; i >>>= 1) {
+                tree[i] = winner(tree[2 * i], tree[2 * i + 1]);
+            }
+            remaining--;
+            return v;
+        }
+
+        public int remaining() {
+            return remaining;
+        }
+
+        // En empates gana la izquierda, así el orden de salida es estable
+        private int winner(int l, int r) {
+            if (l < 0) return r;
+            if (r < 0) return l;
+            return keys[r] < keys[l] ? r : l;
+        }
+    }
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        OfLong t = new OfLong(a, from, to);
+        for (int i = from; i < to; i++) {
+            a[i] = t.nextLong();
+        }
+    }
+
+    // Los k menores en orden, sin ordenar el resto
+    public static long[] smallest(long[] a, int k) {
+        OfLong t = new OfLong(a);
+        long[] out = new long[Math.min(k, a.length)];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = t.nextLong();
+        }
+        return out;
+    }
+}